@@ -0,0 +1,15 @@
+package com.sxh.eventbus;
+
+import android.app.Application;
+
+public class App extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        //重要！！！添加APT生成索引类的实例对象，并作为EventBus.getDefault()的默认实例
+        EventBus.builder()
+                .addIndex(new EventBusIndex())
+                .installDefaultEventBus();
+    }
+}
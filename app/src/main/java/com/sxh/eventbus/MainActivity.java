@@ -15,8 +15,6 @@ public class MainActivity extends AppCompatActivity {
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
-        //重要！！！添加APT生成索引类的实例对象
-        EventBus.getDefault().addIndex(new EventBusIndex());
         EventBus.getDefault().register(this);
     }
 
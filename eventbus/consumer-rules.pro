@@ -0,0 +1,3 @@
+# 核心模块通过类名加载Android主线程和日志实现，混淆时保留
+-keep class com.sxh.eventbus.AndroidMainThreadSupport { <init>(); }
+-keep class com.sxh.eventbus.AndroidLogger { <init>(); }
@@ -0,0 +1,40 @@
+package com.sxh.eventbus;
+
+import android.util.Log;
+
+import java.util.logging.Level;
+
+/**
+ * 输出到Logcat，Android环境下的默认实现
+ */
+final class AndroidLogger implements Logger {
+
+    private static final String TAG = "sxh";
+
+    @Override
+    public void log(Level level, String msg) {
+        if (level != Level.OFF) {
+            Log.println(mapLevel(level), TAG, msg);
+        }
+    }
+
+    @Override
+    public void log(Level level, String msg, Throwable th) {
+        if (level != Level.OFF) {
+            Log.println(mapLevel(level), TAG, msg + "\n" + Log.getStackTraceString(th));
+        }
+    }
+
+    private static int mapLevel(Level level) {
+        int value = level.intValue();
+        if (value < Level.INFO.intValue()) {
+            return value < Level.FINE.intValue() ? Log.VERBOSE : Log.DEBUG;
+        } else if (value < Level.WARNING.intValue()) {
+            return Log.INFO;
+        } else if (value < Level.SEVERE.intValue()) {
+            return Log.WARN;
+        } else {
+            return Log.ERROR;
+        }
+    }
+}
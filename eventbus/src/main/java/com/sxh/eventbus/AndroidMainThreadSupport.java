@@ -0,0 +1,33 @@
+package com.sxh.eventbus;
+
+import android.os.Handler;
+import android.os.Looper;
+
+/**
+ * 基于Looper的主线程支持，Android环境下的默认实现
+ */
+final class AndroidMainThreadSupport implements MainThreadSupport {
+
+    private final Looper looper;
+    private final Handler handler;
+
+    AndroidMainThreadSupport() {
+        looper = Looper.getMainLooper();
+        if (looper == null) {
+            throw new IllegalStateException("主线程Looper不存在");
+        }
+        handler = new Handler(looper);
+    }
+
+    @Override
+    public boolean isMainThread() {
+        return Looper.myLooper() == looper;
+    }
+
+    @Override
+    public void execute(Runnable runnable) {
+        if (!handler.post(runnable)) {
+            throw new IllegalStateException("主线程消息发送失败");
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.sxh.eventbus_annotation;
+
+/**
+ * ASYNC订阅方法的信箱满了之后，新投递的处理策略
+ */
+public enum BackpressurePolicy {
+
+    //阻塞发布线程，直到信箱有空位，不要用于在主线程发布的事件；
+    //订阅方法执行中向自己的信箱发布时不能等待（只有它自己能腾出空位），信箱满则丢弃
+    BLOCK,
+
+    //丢弃新事件
+    DROP_NEWEST,
+
+    //丢弃信箱中最早的事件，再放入新事件
+    DROP_OLDEST,
+
+    //用新事件替换信箱中最新的那个事件
+    CONFLATE
+}
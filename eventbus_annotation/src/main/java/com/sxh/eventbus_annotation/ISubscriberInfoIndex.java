@@ -12,4 +12,20 @@ public interface ISubscriberInfoIndex {
      * @return 事件订阅方法封装类
      */
     SubscriberInfo getSubscriberInfo(Class<?> subscriberClass);
+
+    /**
+     * 获取索引中所有订阅者的类名（与Class.getName()一致），EventBus创建时据此把多个模块的索引合并成一张查找表
+     * 只返回字符串，不会触发订阅者的类加载，订阅方法等到第一次注册时才通过getSubscriberInfo创建
+     *
+     * @return 所有订阅者的类名
+     */
+    String[] getSubscriberClassNames();
+
+    /**
+     * 获取APT生成的事件类型id表：下标即事件类型id（与SubscriberMethod.getEventTypeId()对应），元素为事件类型的类名
+     * id按类名排序分配，同一模块内稳定，EventBus创建时据此把多个模块的事件类型合并成全局id
+     *
+     * @return 所有订阅事件类型的类名
+     */
+    String[] getEventTypeNames();
 }
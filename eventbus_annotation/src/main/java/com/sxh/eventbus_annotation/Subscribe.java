@@ -18,4 +18,20 @@ public @interface Subscribe {
 
     //事件订阅优先级，在同一个线程中。数值越大优先级越高。
     int priority() default 0;
+
+    //是否合并投递，只对需要切换线程的MAIN、BACKGROUND、ASYNC有效。
+    //同一订阅方法还有未执行的投递时，新事件直接替换它，只执行最新的一个，适合进度、位置、传感器这类高频状态事件
+    boolean conflate() default false;
+
+    //ASYNC订阅方法的信箱容量，0表示不限制。设置后该订阅方法的投递先放入自己的信箱，同一时刻只有一个线程依次执行
+    int mailboxCapacity() default 0;
+
+    //信箱满了之后的处理策略，只在设置了mailboxCapacity时有效
+    BackpressurePolicy backpressure() default BackpressurePolicy.BLOCK;
+
+    //防抖时间，单位毫秒，0表示不防抖。事件停止到达这么久之后，只投递最后一个，适合搜索框输入这类连续触发的事件
+    long debounceMillis() default 0;
+
+    //节流周期，单位毫秒，0表示不节流。每个周期最多投递一次：第一个事件立即投递，其余的只保留最新的一个，周期结束时投递
+    long throttleMillis() default 0;
 }
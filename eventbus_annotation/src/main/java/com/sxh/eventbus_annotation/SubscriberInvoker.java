@@ -0,0 +1,18 @@
+package com.sxh.eventbus_annotation;
+
+/**
+ * 订阅方法执行器，APT为每个@Subscribe方法生成一个实现，直接强转调用订阅方法，避免反射
+ *
+ * 如：((MainActivity) subscriber).onEventLogin((LoginEvent) event); return null;
+ */
+public interface SubscriberInvoker {
+
+    /**
+     * 执行订阅方法
+     *
+     * @param subscriber 订阅者，如：MainActivity
+     * @param event      事件对象，如：LoginEvent
+     * @return 订阅方法的返回值，void方法返回null，用于EventBus.postForResult收集结果
+     */
+    Object invoke(Object subscriber, Object event) throws Throwable;
+}
@@ -11,14 +11,18 @@ import java.lang.reflect.Method;
  * }
  */
 public class SubscriberMethod {
+    /**
+     * 订阅者对象Class，如：MainActivity.class，用于需要时再反射查找Method
+     */
+    private Class<?> subscriberClass;
     /**
      * 订阅方法名，如：process
      */
     private String methodName;
     /**
-     * 订阅方法，用于最后的自动执行订阅方法，如：process对应的Method
+     * 订阅方法，如：process对应的Method，第一次调用getMethod()时才反射查找，避免索引初始化时为每个订阅者生成反射元数据
      */
-    private Method method;
+    private volatile Method method;
     /**
      * 线程模式，如：ThreadMode.MAIN
      */
@@ -31,19 +35,68 @@ public class SubscriberMethod {
      * 是否粘性事件（实现思路：发送时存储，注册时判断粘性再激活）
      */
     private boolean sticky;
+    /**
+     * 优先级，数值越大越先执行，注册时按它排好序
+     */
+    private int priority;
+    /**
+     * 是否合并投递：还有未执行的投递时，新事件替换旧事件
+     */
+    private boolean conflate;
+    /**
+     * ASYNC订阅方法的信箱容量，0表示不限制
+     */
+    private int mailboxCapacity;
+    /**
+     * 信箱满了之后的处理策略
+     */
+    private BackpressurePolicy backpressure;
+    /**
+     * 订阅方法是否有返回值，有返回值的方法才会被EventBus.postForResult收集结果
+     */
+    private boolean hasReturnValue;
+    /**
+     * 防抖时间，单位毫秒，0表示不防抖
+     */
+    private long debounceMillis;
+    /**
+     * 节流周期，单位毫秒，0表示不节流
+     */
+    private long throttleMillis;
+    /**
+     * 事件类型id，APT为模块内每个事件类型分配的稳定id，即ISubscriberInfoIndex.getEventTypeNames()的下标
+     */
+    private int eventTypeId;
+    /**
+     * 订阅方法执行器，EventBus分发事件时直接调用它，不再走Method.invoke
+     */
+    private SubscriberInvoker invoker;
 
+    /**
+     * 由APT生成的索引类调用，threadMode到throttleMillis对应@Subscribe的属性
+     */
     public SubscriberMethod(Class subscriberClass, String methodName,
-                            Class<?> eventTypeClass, ThreadMode threadMode, boolean sticky) {
+                            Class<?> eventTypeClass, ThreadMode threadMode, boolean sticky,
+                            int priority, boolean conflate, int mailboxCapacity, BackpressurePolicy backpressure,
+                            boolean hasReturnValue, long debounceMillis, long throttleMillis,
+                            int eventTypeId, SubscriberInvoker invoker) {
+        if (invoker == null) {
+            throw new NullPointerException("订阅方法执行器不能为空，请使用APT生成的索引：" + methodName);
+        }
+        this.subscriberClass = subscriberClass;
         this.methodName = methodName;
         this.threadMode = threadMode;
         this.eventTypeClass = eventTypeClass;
         this.sticky = sticky;
-        try {
-            //通过方法名去反射拿到Method对象
-            method = subscriberClass.getDeclaredMethod(methodName, eventTypeClass);
-        } catch (NoSuchMethodException e) {
-            e.printStackTrace();
-        }
+        this.priority = priority;
+        this.conflate = conflate;
+        this.mailboxCapacity = mailboxCapacity;
+        this.backpressure = backpressure;
+        this.hasReturnValue = hasReturnValue;
+        this.debounceMillis = debounceMillis;
+        this.throttleMillis = throttleMillis;
+        this.eventTypeId = eventTypeId;
+        this.invoker = invoker;
     }
 
     public String getMethodName() {
@@ -51,6 +104,16 @@ public class SubscriberMethod {
     }
 
     public Method getMethod() {
+        Method method = this.method;
+        if (method == null) {
+            try {
+                //通过方法名去反射拿到Method对象
+                method = subscriberClass.getDeclaredMethod(methodName, eventTypeClass);
+                this.method = method;
+            } catch (NoSuchMethodException e) {
+                e.printStackTrace();
+            }
+        }
         return method;
     }
 
@@ -65,4 +128,40 @@ public class SubscriberMethod {
     public boolean isSticky() {
         return sticky;
     }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public boolean isConflate() {
+        return conflate;
+    }
+
+    public int getMailboxCapacity() {
+        return mailboxCapacity;
+    }
+
+    public BackpressurePolicy getBackpressure() {
+        return backpressure;
+    }
+
+    public boolean hasReturnValue() {
+        return hasReturnValue;
+    }
+
+    public long getDebounceMillis() {
+        return debounceMillis;
+    }
+
+    public long getThrottleMillis() {
+        return throttleMillis;
+    }
+
+    public int getEventTypeId() {
+        return eventTypeId;
+    }
+
+    public SubscriberInvoker getInvoker() {
+        return invoker;
+    }
 }
@@ -11,6 +11,12 @@ public enum ThreadMode {
     //主线程
     MAIN,
 
+    //后台线程：发布在子线程时直接执行，发布在主线程时放入唯一的后台队列，由同一个后台线程依次执行
+    BACKGROUND,
+
     //异步线程
-    ASYNC
+    ASYNC,
+
+    //有序异步线程：同一订阅者对象的投递在子线程上按发布顺序依次执行，不同订阅者之间并行
+    ORDERED_ASYNC
 }
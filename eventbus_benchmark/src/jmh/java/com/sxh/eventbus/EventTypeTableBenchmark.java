@@ -0,0 +1,71 @@
+package com.sxh.eventbus;
+
+import com.sxh.eventbus.benchmark.BenchmarkEvent;
+import com.sxh.eventbus.benchmark.BenchmarkIndex;
+import com.sxh.eventbus_annotation.ISubscriberInfoIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按事件类型查找订阅者：事件类型id加数组下标，与以Class为key的HashMap、ConcurrentHashMap对比
+ * <p>
+ * EventTypeTable不对外公开，所以放在com.sxh.eventbus包下
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class EventTypeTableBenchmark {
+
+    private EventTypeTable eventTypeTable;
+    private Object[][] subscriptionsById;
+    private Map<Class<?>, Object[]> hashMap;
+    private Map<Class<?>, Object[]> concurrentHashMap;
+    private Class<?> eventType;
+
+    @Setup
+    public void setUp() {
+        eventTypeTable = new EventTypeTable(Collections.<ISubscriberInfoIndex>singletonList(new BenchmarkIndex()));
+        eventType = BenchmarkEvent.class;
+        Object[] subscriptions = new Object[1];
+        int id = eventTypeTable.idOf(eventType);
+        subscriptionsById = new Object[eventTypeTable.size()][];
+        subscriptionsById[id] = subscriptions;
+        hashMap = new HashMap<>();
+        concurrentHashMap = new ConcurrentHashMap<>();
+        //放入一些其他类型，避免表过小
+        Class<?>[] otherTypes = {String.class, Integer.class, Long.class, Object.class, Thread.class, Map.class};
+        for (Class<?> otherType : otherTypes) {
+            hashMap.put(otherType, new Object[0]);
+            concurrentHashMap.put(otherType, new Object[0]);
+        }
+        hashMap.put(eventType, subscriptions);
+        concurrentHashMap.put(eventType, subscriptions);
+    }
+
+    @Benchmark
+    public Object[] idArray() {
+        return subscriptionsById[eventTypeTable.find(eventType)];
+    }
+
+    @Benchmark
+    public Object[] hashMap() {
+        return hashMap.get(eventType);
+    }
+
+    @Benchmark
+    public Object[] concurrentHashMap() {
+        return concurrentHashMap.get(eventType);
+    }
+}
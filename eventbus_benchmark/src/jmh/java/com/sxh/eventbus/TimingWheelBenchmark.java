@@ -0,0 +1,64 @@
+package com.sxh.eventbus;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 添加并取消一个延迟任务：时间轮与ScheduledThreadPoolExecutor对比，模拟防抖、超时这类大多被取消的定时任务
+ * <p>
+ * TimingWheel不对外公开，所以放在com.sxh.eventbus包下
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class TimingWheelBenchmark {
+
+    private static final long DELAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final TimingWheel.Task NOOP_TASK = new TimingWheel.Task() {
+        @Override
+        public void run(Object argument) {
+        }
+    };
+    private static final Runnable NOOP_RUNNABLE = new Runnable() {
+        @Override
+        public void run() {
+        }
+    };
+
+    private TimingWheel.Scheduler timingWheel;
+    private ScheduledThreadPoolExecutor scheduledExecutor;
+
+    @Setup
+    public void setUp() {
+        timingWheel = new TimingWheel.Scheduler(TimingWheel.shared(), Executors.newSingleThreadExecutor(), new Logger.SystemOutLogger());
+        scheduledExecutor = new ScheduledThreadPoolExecutor(1);
+        scheduledExecutor.setRemoveOnCancelPolicy(true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        scheduledExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public boolean timingWheel() {
+        return timingWheel.schedule(NOOP_TASK, null, DELAY_NANOS).cancel();
+    }
+
+    @Benchmark
+    public boolean scheduledExecutor() {
+        ScheduledFuture<?> future = scheduledExecutor.schedule(NOOP_RUNNABLE, DELAY_NANOS, TimeUnit.NANOSECONDS);
+        return future.cancel(false);
+    }
+}
@@ -0,0 +1,86 @@
+package com.sxh.eventbus.benchmark;
+
+import com.sxh.eventbus.EventBus;
+import com.sxh.eventbus.EventBusBuilder;
+import com.sxh.eventbus.JvmExecutors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 10000个ASYNC订阅者，每个阻塞10毫秒：缓存线程池（每个并发投递一个平台线程）与虚拟线程池对比
+ * <p>
+ * virtual、virtualLimit1000需要在Java 21及以上运行，否则初始化失败
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xss256k"})
+@State(Scope.Benchmark)
+public class AsyncBlockingBenchmark {
+
+    private static final int SUBSCRIBER_COUNT = 10000;
+    private static final long BLOCK_MILLIS = 10;
+
+    @Param({"cached", "virtual", "virtualLimit1000"})
+    String executor;
+
+    private EventBus eventBus;
+    private ExecutorService executorService;
+
+    @Setup
+    public void setUp() {
+        EventBusBuilder builder = EventBus.builder().addIndex(new BenchmarkIndex());
+        switch (executor) {
+            case "cached":
+                executorService = Executors.newCachedThreadPool();
+                builder.asyncExecutorService(executorService);
+                break;
+            case "virtual":
+                executorService = JvmExecutors.newVirtualThreadPerTaskExecutor();
+                builder.asyncExecutorService(executorService);
+                break;
+            case "virtualLimit1000":
+                executorService = JvmExecutors.newVirtualThreadPerTaskExecutor();
+                builder.asyncExecutorService(executorService).maxAsyncConcurrency(1000);
+                break;
+            default:
+                throw new IllegalArgumentException(executor);
+        }
+        eventBus = builder.build();
+        for (int i = 0; i < SUBSCRIBER_COUNT; i++) {
+            eventBus.register(new BlockingAsyncSubscriber());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    /**
+     * 发布一个事件，等待10000个订阅方法全部执行完
+     */
+    @Benchmark
+    public void postAndAwait() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(SUBSCRIBER_COUNT);
+        eventBus.post(new BlockingEvent(latch, BLOCK_MILLIS));
+        latch.await();
+    }
+}
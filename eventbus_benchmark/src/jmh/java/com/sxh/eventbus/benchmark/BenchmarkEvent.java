@@ -0,0 +1,13 @@
+package com.sxh.eventbus.benchmark;
+
+/**
+ * 基准测试使用的普通事件
+ */
+public class BenchmarkEvent {
+
+    public final int value;
+
+    public BenchmarkEvent(int value) {
+        this.value = value;
+    }
+}
@@ -0,0 +1,19 @@
+package com.sxh.eventbus.benchmark;
+
+import com.sxh.eventbus_annotation.Subscribe;
+import com.sxh.eventbus_annotation.ThreadMode;
+
+/**
+ * ASYNC订阅方法中阻塞
+ */
+public class BlockingAsyncSubscriber {
+
+    @Subscribe(threadMode = ThreadMode.ASYNC)
+    public void onEvent(BlockingEvent event) throws InterruptedException {
+        try {
+            Thread.sleep(event.blockMillis);
+        } finally {
+            event.latch.countDown();
+        }
+    }
+}
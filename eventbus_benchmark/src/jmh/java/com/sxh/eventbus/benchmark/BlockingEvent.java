@@ -0,0 +1,17 @@
+package com.sxh.eventbus.benchmark;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * 订阅方法收到后阻塞一段时间，模拟磁盘、数据库等阻塞I/O，执行完计数
+ */
+public class BlockingEvent {
+
+    public final CountDownLatch latch;
+    public final long blockMillis;
+
+    public BlockingEvent(CountDownLatch latch, long blockMillis) {
+        this.latch = latch;
+        this.blockMillis = blockMillis;
+    }
+}
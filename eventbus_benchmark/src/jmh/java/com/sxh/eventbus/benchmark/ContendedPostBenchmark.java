@@ -0,0 +1,82 @@
+package com.sxh.eventbus.benchmark;
+
+import com.sxh.eventbus.EventBus;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 1、2、4、8个线程同时发布同一类型的事件，以及发布的同时另一个线程反复注册、解注册
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ContendedPostBenchmark {
+
+    private static final int SUBSCRIBER_COUNT = 10;
+
+    private EventBus eventBus;
+    private BenchmarkEvent event;
+    private NoopSubscriber churnSubscriber;
+
+    @Setup
+    public void setUp() {
+        eventBus = EventBus.builder().addIndex(new BenchmarkIndex()).build();
+        for (int i = 0; i < SUBSCRIBER_COUNT; i++) {
+            eventBus.register(new NoopSubscriber());
+        }
+        event = new BenchmarkEvent(1);
+        churnSubscriber = new NoopSubscriber();
+    }
+
+    //@Threads不能参数化，每个线程数单独一个方法，对比吞吐量随发布线程数的变化
+
+    @Benchmark
+    @Threads(1)
+    public void post1Thread() {
+        eventBus.post(event);
+    }
+
+    @Benchmark
+    @Threads(2)
+    public void post2Threads() {
+        eventBus.post(event);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void post4Threads() {
+        eventBus.post(event);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void post8Threads() {
+        eventBus.post(event);
+    }
+
+    @Benchmark
+    @Group("postWhileRegistering")
+    @GroupThreads(3)
+    public void groupPost() {
+        eventBus.post(event);
+    }
+
+    @Benchmark
+    @Group("postWhileRegistering")
+    @GroupThreads(1)
+    public void groupRegister() {
+        eventBus.register(churnSubscriber);
+        eventBus.unregister(churnSubscriber);
+    }
+}
@@ -0,0 +1,50 @@
+package com.sxh.eventbus.benchmark;
+
+import com.sxh.eventbus_annotation.ISubscriberInfoIndex;
+import com.sxh.eventbus_annotation.SubscriberInfo;
+import com.sxh.eventbus_annotation.SubscriberMethod;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 冷启动对照组：还原索引改为延迟创建之前的做法，创建索引时就加载所有订阅者类，
+ * 创建全部订阅方法、执行器，并反射查找每个订阅方法的Method
+ */
+public final class EagerSubscriberIndex implements ISubscriberInfoIndex {
+
+    private final ISubscriberInfoIndex index;
+    private final Map<String, SubscriberInfo> subscriberInfos = new HashMap<>();
+
+    public EagerSubscriberIndex(ISubscriberInfoIndex index) {
+        this.index = index;
+        for (String className : index.getSubscriberClassNames()) {
+            Class<?> subscriberClass;
+            try {
+                subscriberClass = Class.forName(className);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException("索引中的订阅者类不存在：" + className, e);
+            }
+            SubscriberInfo subscriberInfo = index.getSubscriberInfo(subscriberClass);
+            for (SubscriberMethod subscriberMethod : subscriberInfo.getSubscriberMethods()) {
+                subscriberMethod.getMethod();
+            }
+            subscriberInfos.put(className, subscriberInfo);
+        }
+    }
+
+    @Override
+    public SubscriberInfo getSubscriberInfo(Class<?> subscriberClass) {
+        return subscriberInfos.get(subscriberClass.getName());
+    }
+
+    @Override
+    public String[] getSubscriberClassNames() {
+        return index.getSubscriberClassNames();
+    }
+
+    @Override
+    public String[] getEventTypeNames() {
+        return index.getEventTypeNames();
+    }
+}
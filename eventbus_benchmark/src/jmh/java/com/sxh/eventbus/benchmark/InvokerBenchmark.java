@@ -0,0 +1,52 @@
+package com.sxh.eventbus.benchmark;
+
+import com.sxh.eventbus_annotation.SubscriberInvoker;
+import com.sxh.eventbus_annotation.SubscriberMethod;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * APT生成的执行器与Method.invoke反射调用对比
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class InvokerBenchmark {
+
+    private PostingSubscriber subscriber;
+    private BenchmarkEvent event;
+    private SubscriberInvoker invoker;
+    private Method method;
+
+    @Setup
+    public void setUp() {
+        subscriber = new PostingSubscriber();
+        event = new BenchmarkEvent(1);
+        SubscriberMethod subscriberMethod = new BenchmarkIndex()
+                .getSubscriberInfo(PostingSubscriber.class)
+                .getSubscriberMethods()[0];
+        invoker = subscriberMethod.getInvoker();
+        method = subscriberMethod.getMethod();
+    }
+
+    @Benchmark
+    public long generatedInvoker() throws Throwable {
+        invoker.invoke(subscriber, event);
+        return subscriber.sum;
+    }
+
+    @Benchmark
+    public long reflection() throws Exception {
+        method.invoke(subscriber, event);
+        return subscriber.sum;
+    }
+}
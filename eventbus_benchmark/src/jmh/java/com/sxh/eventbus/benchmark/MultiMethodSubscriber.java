@@ -0,0 +1,32 @@
+package com.sxh.eventbus.benchmark;
+
+import com.sxh.eventbus_annotation.Subscribe;
+import com.sxh.eventbus_annotation.ThreadMode;
+
+/**
+ * 包含多个订阅方法的订阅者，用于测量第一次注册时创建订阅方法的开销
+ */
+public class MultiMethodSubscriber {
+
+    public int received;
+
+    @Subscribe(priority = 1)
+    public void onEvent(BenchmarkEvent event) {
+        received++;
+    }
+
+    @Subscribe(threadMode = ThreadMode.MAIN)
+    public void onMainEvent(BenchmarkEvent event) {
+        received++;
+    }
+
+    @Subscribe(threadMode = ThreadMode.BACKGROUND)
+    public void onBackgroundEvent(BenchmarkEvent event) {
+        received++;
+    }
+
+    @Subscribe(sticky = true)
+    public void onStickyEvent(StickyBenchmarkEvent event) {
+        received++;
+    }
+}
@@ -0,0 +1,13 @@
+package com.sxh.eventbus.benchmark;
+
+import com.sxh.eventbus_annotation.Subscribe;
+
+/**
+ * 空订阅方法，多线程发布时不写共享字段，测到的只有EventBus自身的开销
+ */
+public class NoopSubscriber {
+
+    @Subscribe
+    public void onEvent(BenchmarkEvent event) {
+    }
+}
@@ -0,0 +1,56 @@
+package com.sxh.eventbus.benchmark;
+
+import com.sxh.eventbus.EventBus;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一次发出大量事件：逐个post与postAll对比，两种事件类型交替出现
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class PostAllBenchmark {
+
+    @Param({"100", "1000"})
+    int eventCount;
+
+    private EventBus eventBus;
+    private List<Object> events;
+
+    @Setup
+    public void setUp() {
+        eventBus = EventBus.builder().addIndex(new BenchmarkIndex()).build();
+        for (int i = 0; i < 10; i++) {
+            eventBus.register(new PostingSubscriber());
+            eventBus.register(new StickySubscriber());
+        }
+        events = new ArrayList<>();
+        for (int i = 0; i < eventCount; i++) {
+            events.add(i % 2 == 0 ? new BenchmarkEvent(i) : new StickyBenchmarkEvent());
+        }
+    }
+
+    @Benchmark
+    public void postEach() {
+        for (Object event : events) {
+            eventBus.post(event);
+        }
+    }
+
+    @Benchmark
+    public void postAll() {
+        eventBus.postAll(events);
+    }
+}
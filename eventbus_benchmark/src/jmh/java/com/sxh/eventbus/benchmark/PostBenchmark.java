@@ -0,0 +1,57 @@
+package com.sxh.eventbus.benchmark;
+
+import com.sxh.eventbus.EventBus;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单线程发布：1、10、100个POSTING订阅者，分别测试关闭和开启事件继承
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class PostBenchmark {
+
+    @Param({"1", "10", "100"})
+    int subscriberCount;
+
+    @Param({"false", "true"})
+    boolean eventInheritance;
+
+    private EventBus eventBus;
+    private BenchmarkEvent event;
+
+    @Setup
+    public void setUp() {
+        eventBus = EventBus.builder()
+                .addIndex(new BenchmarkIndex())
+                .eventInheritance(eventInheritance)
+                .build();
+        for (int i = 0; i < subscriberCount; i++) {
+            eventBus.register(new PostingSubscriber());
+        }
+        event = new BenchmarkEvent(1);
+    }
+
+    @Benchmark
+    public void post() {
+        eventBus.post(event);
+    }
+
+    /**
+     * 没有订阅者的事件类型，只有查找开销
+     */
+    @Benchmark
+    public void postWithoutSubscriber() {
+        eventBus.post(this);
+    }
+}
@@ -0,0 +1,16 @@
+package com.sxh.eventbus.benchmark;
+
+import com.sxh.eventbus_annotation.Subscribe;
+
+/**
+ * 在发布线程直接执行的订阅者，累加事件值，避免订阅方法被JIT优化掉
+ */
+public class PostingSubscriber {
+
+    public long sum;
+
+    @Subscribe
+    public void onEvent(BenchmarkEvent event) {
+        sum += event.value;
+    }
+}
@@ -0,0 +1,47 @@
+package com.sxh.eventbus.benchmark;
+
+import com.sxh.eventbus.EventBus;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 注册、解注册反复进行，如Activity频繁创建销毁，已有订阅者越多，写时复制的数组越长
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class RegisterBenchmark {
+
+    @Param({"0", "10", "100"})
+    int existingSubscriberCount;
+
+    private EventBus eventBus;
+    private PostingSubscriber subscriber;
+
+    @Setup
+    public void setUp() {
+        eventBus = EventBus.builder().addIndex(new BenchmarkIndex()).build();
+        for (int i = 0; i < existingSubscriberCount; i++) {
+            eventBus.register(new PostingSubscriber());
+        }
+        subscriber = new PostingSubscriber();
+        //第一次注册会创建订阅方法并缓存，基准测试只关心之后的注册
+        eventBus.register(subscriber);
+        eventBus.unregister(subscriber);
+    }
+
+    @Benchmark
+    public void registerAndUnregister() {
+        eventBus.register(subscriber);
+        eventBus.unregister(subscriber);
+    }
+}
@@ -0,0 +1,65 @@
+package com.sxh.eventbus.benchmark;
+
+import com.sxh.eventbus.EventBus;
+import com.sxh.eventbus.benchmark.synthetic.SyntheticSubscriber000;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 冷启动：创建EventBus（合并索引）并第一次注册订阅者。索引中除了手写的订阅者，
+ * 还有构建时生成的300个合成订阅者（见build.gradle的generateSyntheticSubscribers）
+ * <p>
+ * 每个fork是一个新的JVM，只执行一次、不预热，测到的是类加载、反射元数据等第一次的开销；
+ * 对照组EagerSubscriberIndex在创建时加载全部订阅者，延迟创建的索引只加载注册到的那一个
+ * <p>
+ * 需要单独运行：./gradlew :eventbus_benchmark:jmh -Pjmh.include=StartupBenchmark
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    @Setup
+    public void setUp() {
+        //先加载EventBus自身的类，只比较索引和订阅者的开销
+        EventBus.builder().build();
+    }
+
+    @Benchmark
+    public EventBus build() {
+        return EventBus.builder().addIndex(new BenchmarkIndex()).build();
+    }
+
+    @Benchmark
+    public EventBus buildEagerIndex() {
+        return EventBus.builder().addIndex(new EagerSubscriberIndex(new BenchmarkIndex())).build();
+    }
+
+    @Benchmark
+    public EventBus buildAndFirstRegister() {
+        EventBus eventBus = EventBus.builder().addIndex(new BenchmarkIndex()).build();
+        eventBus.register(new SyntheticSubscriber000());
+        return eventBus;
+    }
+
+    @Benchmark
+    public EventBus buildEagerIndexAndFirstRegister() {
+        EventBus eventBus = EventBus.builder().addIndex(new EagerSubscriberIndex(new BenchmarkIndex())).build();
+        eventBus.register(new SyntheticSubscriber000());
+        return eventBus;
+    }
+}
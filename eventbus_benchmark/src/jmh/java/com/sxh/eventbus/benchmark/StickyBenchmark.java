@@ -0,0 +1,58 @@
+package com.sxh.eventbus.benchmark;
+
+import com.sxh.eventbus.EventBus;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 粘性事件：发布粘性事件，以及注册时回放粘性事件
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class StickyBenchmark {
+
+    @Param({"false", "true"})
+    boolean eventInheritance;
+
+    private EventBus eventBus;
+    private StickyBenchmarkEvent event;
+    private StickySubscriber subscriber;
+
+    @Setup
+    public void setUp() {
+        eventBus = EventBus.builder()
+                .addIndex(new BenchmarkIndex())
+                .eventInheritance(eventInheritance)
+                .build();
+        event = new StickyBenchmarkEvent();
+        eventBus.postSticky(event);
+        subscriber = new StickySubscriber();
+        eventBus.register(subscriber);
+        eventBus.unregister(subscriber);
+    }
+
+    @Benchmark
+    public void postSticky() {
+        eventBus.postSticky(event);
+    }
+
+    /**
+     * 注册时回放粘性事件，再解注册以便下一次注册
+     */
+    @Benchmark
+    public int registerWithStickyReplay() {
+        eventBus.register(subscriber);
+        eventBus.unregister(subscriber);
+        return subscriber.received;
+    }
+}
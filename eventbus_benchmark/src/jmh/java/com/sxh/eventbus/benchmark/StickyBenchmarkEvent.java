@@ -0,0 +1,7 @@
+package com.sxh.eventbus.benchmark;
+
+/**
+ * 基准测试使用的粘性事件
+ */
+public class StickyBenchmarkEvent {
+}
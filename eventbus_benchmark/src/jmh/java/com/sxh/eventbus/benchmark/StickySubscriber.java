@@ -0,0 +1,16 @@
+package com.sxh.eventbus.benchmark;
+
+import com.sxh.eventbus_annotation.Subscribe;
+
+/**
+ * 订阅粘性事件，注册时立即收到之前发布的粘性事件
+ */
+public class StickySubscriber {
+
+    public int received;
+
+    @Subscribe(sticky = true)
+    public void onEvent(StickyBenchmarkEvent event) {
+        received++;
+    }
+}
@@ -16,18 +16,30 @@ public class Constants {
     // 所有的事件订阅方法，生成索引接口
     public static final String I_SUBSCRIBERINFO_INDEX = "com.sxh.eventbus_annotation.ISubscriberInfoIndex";
 
-    // 全局属性名
-    public static final String FIELD_NAME = "SUBSCRIBER_INDEX";
+    // 全局属性名：所有订阅者的类名
+    public static final String FIELD_NAME = "SUBSCRIBER_CLASS_NAMES";
 
-    // putItem方法的参数对象名
-    public static final String PUTITEM_PARAMETER_NAME = "subscriberInfo";
-
-    // 加入Map集合方法名
-    public static final String PUTITEM_METHOD_NAME = "putItem";
+    // 全局属性名：所有订阅事件类型的类名，下标即事件类型id
+    public static final String EVENT_TYPE_NAMES_FIELD_NAME = "EVENT_TYPE_NAMES";
 
     // getSubscriberInfo方法的参数对象名
     public static final String GETSUBSCRIBERINFO_PARAMETER_NAME = "subscriberClass";
 
     // 通过订阅者对象（MainActivity.class）获取所有订阅方法的方法名
     public static final String GETSUBSCRIBERINFO_METHOD_NAME = "getSubscriberInfo";
+
+    // 获取索引中所有订阅者类名的方法名
+    public static final String GETSUBSCRIBERCLASSNAMES_METHOD_NAME = "getSubscriberClassNames";
+
+    // 获取事件类型id表的方法名
+    public static final String GETEVENTTYPENAMES_METHOD_NAME = "getEventTypeNames";
+
+    // 订阅方法执行器的方法名
+    public static final String INVOKE_METHOD_NAME = "invoke";
+
+    // 订阅方法执行器的订阅者参数名
+    public static final String INVOKE_SUBSCRIBER_PARAMETER_NAME = "subscriber";
+
+    // 订阅方法执行器的事件参数名
+    public static final String INVOKE_EVENT_PARAMETER_NAME = "event";
 }
@@ -2,26 +2,30 @@ package com.sxh.eventbus_compiler;
 
 import com.google.auto.service.AutoService;
 
+import com.squareup.javapoet.ArrayTypeName;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterSpec;
-import com.squareup.javapoet.ParameterizedTypeName;
-import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
+import com.sxh.eventbus_annotation.BackpressurePolicy;
 import com.sxh.eventbus_annotation.EventBeans;
 import com.sxh.eventbus_annotation.Subscribe;
 import com.sxh.eventbus_annotation.SubscriberInfo;
+import com.sxh.eventbus_annotation.SubscriberInvoker;
 import com.sxh.eventbus_annotation.SubscriberMethod;
 import com.sxh.eventbus_annotation.ThreadMode;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 
 import javax.annotation.processing.AbstractProcessor;
 import javax.annotation.processing.Filer;
@@ -39,6 +43,7 @@ import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 import javax.tools.Diagnostic;
@@ -146,14 +151,51 @@ public class SubscribeProcessor extends AbstractProcessor {
         createFile(subscriberIndexType);
     }
 
+    /**
+     * 为模块内所有订阅的事件类型分配id：按二进制类名排序后的下标，同样的事件集合每次编译得到的id都相同
+     *
+     * @return key：事件类型的二进制类名，如com.sxh.eventbus.LoginEvent，value：事件类型id
+     */
+    private Map<String, Integer> assignEventTypeIds() {
+        Set<String> eventTypeNames = new TreeSet<>();
+        for (List<ExecutableElement> methods : subscribeMethodsInClass.values()) {
+            for (ExecutableElement method : methods) {
+                TypeElement parameterElement = (TypeElement) typeUtils.asElement(method.getParameters().get(0).asType());
+                eventTypeNames.add(elementUtils.getBinaryName(parameterElement).toString());
+            }
+        }
+        Map<String, Integer> eventTypeIds = new LinkedHashMap<>();
+        for (String eventTypeName : eventTypeNames) {
+            eventTypeIds.put(eventTypeName, eventTypeIds.size());
+        }
+        return eventTypeIds;
+    }
+
     private void createFile(TypeElement subscriberIndexType) throws IOException {
-        // 添加静态块代码：SUBSCRIBER_INDEX = new HashMap<Class, SubscriberInfo>();
-        CodeBlock.Builder codeBlock = CodeBlock.builder();
-        codeBlock.addStatement("$N = new $T<$T, $T>()",
-                Constants.FIELD_NAME,
-                HashMap.class,
-                Class.class,
-                SubscriberInfo.class);
+        // 事件类型id表：下标即事件类型id，订阅方法在注册时据此直接挂到对应的槽位上，发布时按id取订阅者
+        Map<String, Integer> eventTypeIds = assignEventTypeIds();
+
+        // getSubscriberInfo方法参数：Class subscriberClass
+        ParameterSpec getSubscriberInfoParameter = ParameterSpec.builder(
+                ClassName.get(Class.class),
+                Constants.GETSUBSCRIBERINFO_PARAMETER_NAME)
+                .build();
+
+        // getSubscriberInfo方法配置：public SubscriberInfo getSubscriberInfo(Class subscriberClass) {
+        MethodSpec.Builder getSubscriberInfoBuidler = MethodSpec
+                .methodBuilder(Constants.GETSUBSCRIBERINFO_METHOD_NAME) // 方法名
+                .addAnnotation(Override.class) // 重写方法注解
+                .addModifiers(Modifier.PUBLIC) // public修饰符
+                .addParameter(getSubscriberInfoParameter) // 方法参数
+                .returns(SubscriberInfo.class); // 方法返回值
+
+        // 按类名分支，只有第一次注册某个订阅者时才创建它的订阅方法，类加载、执行器创建都推迟到这时
+        // switch (subscriberClass.getName()) {
+        getSubscriberInfoBuidler.beginControlFlow("switch ($N.getName())",
+                Constants.GETSUBSCRIBERINFO_PARAMETER_NAME);
+
+        // 所有订阅者的类名，只是字符串常量，不会触发订阅者的类加载
+        CodeBlock.Builder classNamesBlock = CodeBlock.builder();
 
         // 双层循环，第一层遍历被@Subscribe注解的方法所属类。第二层遍历每个类中所有订阅的方法
         for (Map.Entry<TypeElement, List<ExecutableElement>> entry : subscribeMethodsInClass.entrySet()) {
@@ -170,13 +212,17 @@ public class SubscribeProcessor extends AbstractProcessor {
                 String methodName = entry.getValue().get(i).getSimpleName().toString();
                 // 注意：此处还可以做检查工作，比如：参数类型必须是类或接口类型（这里缩减了）
                 TypeElement parameterElement = (TypeElement) typeUtils.asElement(parameters.get(0).asType());
+                // 事件类型id
+                int eventTypeId = eventTypeIds.get(elementUtils.getBinaryName(parameterElement).toString());
+                // 是否有返回值，有则由postForResult收集
+                boolean hasReturnValue = entry.getValue().get(i).getReturnType().getKind() != TypeKind.VOID;
                 // 如果是最后一个添加，则无需逗号结尾
                 if (i == entry.getValue().size() - 1) {
-                    format = "new $T($T.class, $S, $T.class, $T.$L, $L)";
+                    format = "new $T($T.class, $S, $T.class, $T.$L, $L, $L, $L, $L, $T.$L, $L, $LL, $LL, $L, $L)";
                 } else {
-                    format = "new $T($T.class, $S, $T.class, $T.$L, $L),\n";
+                    format = "new $T($T.class, $S, $T.class, $T.$L, $L, $L, $L, $L, $T.$L, $L, $LL, $LL, $L, $L),\n";
                 }
-                //生成 new SubscriberMethod(MainActivity.class, "onEvent", LoginEvent.class, ThreadMode.POSTING, false)
+                //生成 new SubscriberMethod(MainActivity.class, "onEvent", LoginEvent.class, ThreadMode.POSTING, false, 0, false, 0, BackpressurePolicy.BLOCK, false, 0L, 0L, 0, new SubscriberInvoker() {...})
                 contentCode = contentBlock.add(format,
                         SubscriberMethod.class,
                         ClassName.get(entry.getKey()),
@@ -184,67 +230,99 @@ public class SubscribeProcessor extends AbstractProcessor {
                         ClassName.get(parameterElement),
                         ThreadMode.class,
                         subscribe.threadMode(),
-                        subscribe.sticky())
+                        subscribe.sticky(),
+                        subscribe.priority(),
+                        subscribe.conflate(),
+                        subscribe.mailboxCapacity(),
+                        BackpressurePolicy.class,
+                        subscribe.backpressure(),
+                        hasReturnValue,
+                        subscribe.debounceMillis(),
+                        subscribe.throttleMillis(),
+                        eventTypeId,
+                        createInvoker(entry.getKey(), methodName, parameterElement, hasReturnValue))
                         .build();
             }
 
             if (contentCode != null) {
-                // putItem(new EventBeans(MainActivity.class, new SubscriberMethod[] {)
-                codeBlock.beginControlFlow(Constants.PUTITEM_METHOD_NAME + "(new $T($T.class, new $T[]",
-                        EventBeans.class,
-                        ClassName.get(entry.getKey()),
-                        SubscriberMethod.class)
-                        .add(contentCode)
-                        .endControlFlow("))");
+                // 订阅者的二进制类名，与Class.getName()一致，如：com.sxh.eventbus.MainActivity
+                String subscriberClassName = elementUtils.getBinaryName(entry.getKey()).toString();
+                classNamesBlock.add("$S,\n", subscriberClassName);
+                // case "com.sxh.eventbus.MainActivity":
+                //     return new EventBeans(MainActivity.class, new SubscriberMethod[] {...});
+                getSubscriberInfoBuidler.addCode("case $S:\n", subscriberClassName)
+                        .addCode(CodeBlock.builder()
+                                .indent()
+                                .add("return new $T($T.class, new $T[] {\n",
+                                        EventBeans.class,
+                                        ClassName.get(entry.getKey()),
+                                        SubscriberMethod.class)
+                                .indent()
+                                .add(contentCode)
+                                .unindent()
+                                .add("});\n")
+                                .unindent()
+                                .build());
             } else {
                 messager.printMessage(Diagnostic.Kind.ERROR, "注解处理器双层循环发生错误！");
             }
         }
 
-        // 全局属性：Map<Class<?>, SubscriberMethod>
-        TypeName fieldType = ParameterizedTypeName.get(
-                ClassName.get(Map.class), // Map
-                ClassName.get(Class.class), // Map<Class,
-                ClassName.get(SubscriberInfo.class) // Map<Class, SubscriberMethod>
-        );
-
-        // putItem方法参数：putItem(SubscriberInfo subscriberInfo)
-        ParameterSpec putIndexParameter = ParameterSpec.builder(
-                ClassName.get(SubscriberInfo.class),
-                Constants.PUTITEM_PARAMETER_NAME)
-                .build();
-
-        // putItem方法配置：private static void putItem(SubscriberInfo subscriberInfo) {
-        MethodSpec.Builder putIndexBuidler = MethodSpec
-                .methodBuilder(Constants.PUTITEM_METHOD_NAME)
-                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
-                .addParameter(putIndexParameter)
-                .returns(void.class);
+        // default: return null;
+        getSubscriberInfoBuidler.addCode("default:\n")
+                .addCode(CodeBlock.builder().indent().addStatement("return null").unindent().build())
+                .endControlFlow();
 
-        // putItem方法内容：SUBSCRIBER_INDEX.put(info.getSubscriberClass(), info);
-        putIndexBuidler.addStatement("$N.put($N.getSubscriberClass(), $N)",
-                Constants.FIELD_NAME,
-                Constants.PUTITEM_PARAMETER_NAME,
-                Constants.PUTITEM_PARAMETER_NAME);
-
-        // getSubscriberInfo方法参数：Class subscriberClass
-        ParameterSpec getSubscriberInfoParameter = ParameterSpec.builder(
-                ClassName.get(Class.class),
-                Constants.GETSUBSCRIBERINFO_PARAMETER_NAME)
+        // getSubscriberClassNames方法配置：public String[] getSubscriberClassNames() {
+        MethodSpec.Builder getSubscriberClassNamesBuidler = MethodSpec
+                .methodBuilder(Constants.GETSUBSCRIBERCLASSNAMES_METHOD_NAME) // 方法名
+                .addAnnotation(Override.class) // 重写方法注解
+                .addModifiers(Modifier.PUBLIC) // public修饰符
+                .returns(ArrayTypeName.of(String.class)); // 方法返回值
+
+        // getSubscriberClassNames方法内容：return SUBSCRIBER_CLASS_NAMES.clone();
+        getSubscriberClassNamesBuidler.addStatement("return $N.clone()",
+                Constants.FIELD_NAME);
+
+        // 全局属性：private static final String[] SUBSCRIBER_CLASS_NAMES = {...};
+        FieldSpec classNamesField = FieldSpec.builder(ArrayTypeName.of(String.class), Constants.FIELD_NAME,
+                Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer(CodeBlock.builder()
+                        .add("{\n")
+                        .indent()
+                        .add(classNamesBlock.build())
+                        .unindent()
+                        .add("}")
+                        .build())
                 .build();
 
-        // getSubscriberInfo方法配置：public SubscriberMethod getSubscriberInfo(Class<?> subscriberClass) {
-        MethodSpec.Builder getSubscriberInfoBuidler = MethodSpec
-                .methodBuilder(Constants.GETSUBSCRIBERINFO_METHOD_NAME) // 方法名
+        // getEventTypeNames方法配置：public String[] getEventTypeNames() {
+        MethodSpec.Builder getEventTypeNamesBuidler = MethodSpec
+                .methodBuilder(Constants.GETEVENTTYPENAMES_METHOD_NAME) // 方法名
                 .addAnnotation(Override.class) // 重写方法注解
                 .addModifiers(Modifier.PUBLIC) // public修饰符
-                .addParameter(getSubscriberInfoParameter) // 方法参数
-                .returns(SubscriberInfo.class); // 方法返回值
+                .returns(ArrayTypeName.of(String.class)); // 方法返回值
 
-        // getSubscriberInfo方法内容：return SUBSCRIBER_INDEX.get(subscriberClass);
-        getSubscriberInfoBuidler.addStatement("return $N.get($N)",
-                Constants.FIELD_NAME,
-                Constants.GETSUBSCRIBERINFO_PARAMETER_NAME);
+        // getEventTypeNames方法内容：return EVENT_TYPE_NAMES.clone();
+        getEventTypeNamesBuidler.addStatement("return $N.clone()",
+                Constants.EVENT_TYPE_NAMES_FIELD_NAME);
+
+        // 全局属性：private static final String[] EVENT_TYPE_NAMES = {...}; 下标即事件类型id
+        CodeBlock.Builder eventTypeNamesBlock = CodeBlock.builder();
+        for (String eventTypeName : eventTypeIds.keySet()) {
+            eventTypeNamesBlock.add("$S,\n", eventTypeName);
+        }
+        FieldSpec eventTypeNamesField = FieldSpec.builder(ArrayTypeName.of(String.class),
+                Constants.EVENT_TYPE_NAMES_FIELD_NAME,
+                Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer(CodeBlock.builder()
+                        .add("{\n")
+                        .indent()
+                        .add(eventTypeNamesBlock.build())
+                        .unindent()
+                        .add("}")
+                        .build())
+                .build();
 
         // 构建类
         TypeSpec typeSpec = TypeSpec.classBuilder(className)
@@ -252,14 +330,16 @@ public class SubscribeProcessor extends AbstractProcessor {
                 .addSuperinterface(ClassName.get(subscriberIndexType))
                 // 该类的修饰符
                 .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
-                // 添加静态块（很少用的api）
-                .addStaticBlock(codeBlock.build())
-                // 全局属性：private static final Map<Class<?>, SubscriberMethod> SUBSCRIBER_INDEX
-                .addField(fieldType, Constants.FIELD_NAME, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
-                // 第一个方法：加入全局Map集合
-                .addMethod(putIndexBuidler.build())
-                // 第二个方法：通过订阅者对象（MainActivity.class）获取所有订阅方法
+                // 全局属性：private static final String[] SUBSCRIBER_CLASS_NAMES
+                .addField(classNamesField)
+                // 全局属性：private static final String[] EVENT_TYPE_NAMES
+                .addField(eventTypeNamesField)
+                // 第一个方法：通过订阅者对象（MainActivity.class）获取所有订阅方法，用到时才创建
                 .addMethod(getSubscriberInfoBuidler.build())
+                // 第二个方法：获取所有订阅者的类名，用于合并多个索引
+                .addMethod(getSubscriberClassNamesBuidler.build())
+                // 第三个方法：获取事件类型id表，用于合并多个索引的事件类型id
+                .addMethod(getEventTypeNamesBuidler.build())
                 .build();
 
         // 生成类文件：EventBusIndex
@@ -269,6 +349,50 @@ public class SubscribeProcessor extends AbstractProcessor {
                 .writeTo(filer);
     }
 
+    /**
+     * 生成订阅方法执行器，直接强转调用订阅方法，避免分发事件时反射
+     *
+     * new SubscriberInvoker() {
+     *     public Object invoke(Object subscriber, Object event) throws Throwable {
+     *         ((MainActivity) subscriber).onEvent((LoginEvent) event);
+     *         return null;
+     *     }
+     * }
+     * 有返回值的订阅方法直接返回：return ((MainActivity) subscriber).onEvent((LoginEvent) event);
+     */
+    private TypeSpec createInvoker(TypeElement classElement, String methodName, TypeElement parameterElement,
+                                   boolean hasReturnValue) {
+        MethodSpec.Builder invokeMethod = MethodSpec
+                .methodBuilder(Constants.INVOKE_METHOD_NAME)
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(Object.class, Constants.INVOKE_SUBSCRIBER_PARAMETER_NAME)
+                .addParameter(Object.class, Constants.INVOKE_EVENT_PARAMETER_NAME)
+                .addException(Throwable.class)
+                .returns(Object.class);
+        if (hasReturnValue) {
+            invokeMethod.addStatement("return (($T) $N).$N(($T) $N)",
+                    ClassName.get(classElement),
+                    Constants.INVOKE_SUBSCRIBER_PARAMETER_NAME,
+                    methodName,
+                    ClassName.get(parameterElement),
+                    Constants.INVOKE_EVENT_PARAMETER_NAME);
+        } else {
+            invokeMethod.addStatement("(($T) $N).$N(($T) $N)",
+                    ClassName.get(classElement),
+                    Constants.INVOKE_SUBSCRIBER_PARAMETER_NAME,
+                    methodName,
+                    ClassName.get(parameterElement),
+                    Constants.INVOKE_EVENT_PARAMETER_NAME)
+                    .addStatement("return null");
+        }
+
+        return TypeSpec.anonymousClassBuilder("")
+                .addSuperinterface(SubscriberInvoker.class)
+                .addMethod(invokeMethod.build())
+                .build();
+    }
+
     /**
      * 方法相关检查
      *
@@ -294,6 +418,39 @@ public class SubscribeProcessor extends AbstractProcessor {
             messager.printMessage(Diagnostic.Kind.ERROR, "订阅事件方法有且仅有一个参数", element);
             return false;
         }
+
+        // 返回值不做限制：有返回值的订阅方法由postForResult收集结果，普通post忽略返回值
+
+        // 合并投递只对需要切换线程的线程模式有效，POSTING直接在发布线程执行，没有可合并的投递
+        Subscribe subscribe = element.getAnnotation(Subscribe.class);
+        if (subscribe.conflate() && subscribe.threadMode() == ThreadMode.POSTING) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "conflate不能用于ThreadMode.POSTING的订阅事件方法", element);
+            return false;
+        }
+
+        // 信箱只用于ASYNC，与conflate二选一（信箱满时合并请使用backpressure = BackpressurePolicy.CONFLATE）
+        if (subscribe.mailboxCapacity() < 0) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "mailboxCapacity不能小于0", element);
+            return false;
+        }
+        if (subscribe.mailboxCapacity() > 0 && subscribe.threadMode() != ThreadMode.ASYNC) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "mailboxCapacity只能用于ThreadMode.ASYNC的订阅事件方法", element);
+            return false;
+        }
+        if (subscribe.mailboxCapacity() > 0 && subscribe.conflate()) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "mailboxCapacity不能与conflate同时使用，请使用backpressure = BackpressurePolicy.CONFLATE", element);
+            return false;
+        }
+
+        // 防抖、节流二选一
+        if (subscribe.debounceMillis() < 0 || subscribe.throttleMillis() < 0) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "debounceMillis、throttleMillis不能小于0", element);
+            return false;
+        }
+        if (subscribe.debounceMillis() > 0 && subscribe.throttleMillis() > 0) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "debounceMillis不能与throttleMillis同时使用", element);
+            return false;
+        }
         return true;
     }
 
@@ -0,0 +1,98 @@
+package com.sxh.eventbus;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 异步投递器：投递放入无锁队列，向线程池提交执行任务，订阅方法之间互不等待
+ * <p>
+ * 同时执行的任务数不超过maxConcurrency，达到上限后新的投递在队列中等待，由正在执行的任务依次取出执行；
+ * 未设置上限时每次投递都提交一个任务。整个过程不使用synchronized，运行在虚拟线程上时不会因为锁而占住载体线程
+ */
+final class AsyncPoster implements Runnable, Poster {
+
+    private final ConcurrentLinkedQueue<PendingPost> queue;
+    private final EventBus eventBus;
+    private final Executor executor;
+    private final int maxConcurrency;
+    /**
+     * 已提交、还没结束的任务数
+     */
+    private final AtomicInteger running = new AtomicInteger();
+
+    AsyncPoster(EventBus eventBus, Executor executor, int maxConcurrency) {
+        this.eventBus = eventBus;
+        this.executor = executor;
+        this.maxConcurrency = maxConcurrency;
+        queue = new ConcurrentLinkedQueue<>();
+    }
+
+    @Override
+    public void enqueue(Subscription subscription, Object event) {
+        PendingPost pendingPost = eventBus.pendingPostPool.obtain(subscription, event);
+        queue.offer(pendingPost);
+        if (tryAcquire()) {
+            try {
+                executor.execute(this);
+            } catch (RuntimeException e) {
+                running.decrementAndGet();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * ASYNC的订阅方法之间互不等待，批量入队后仍按投递数提交执行任务（不超过并发上限），只是省去了逐个入队
+     */
+    @Override
+    public void enqueueAll(PendingPostBatch batch) {
+        int count = 0;
+        for (PendingPost pendingPost = batch.head; pendingPost != null; ) {
+            PendingPost next = pendingPost.next;
+            pendingPost.next = null;
+            queue.offer(pendingPost);
+            pendingPost = next;
+            count++;
+        }
+        for (int i = 0; i < count && tryAcquire(); i++) {
+            try {
+                executor.execute(this);
+            } catch (RuntimeException e) {
+                running.decrementAndGet();
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            PendingPost pendingPost = queue.poll();
+            if (pendingPost == null) {
+                running.decrementAndGet();
+                //先释放名额再检查一次，与enqueue的 先入队再抢名额 配合，避免漏掉投递
+                if (queue.isEmpty() || !tryAcquire()) {
+                    return;
+                }
+                continue;
+            }
+            eventBus.invokeSubscriber(pendingPost);
+        }
+    }
+
+    /**
+     * 抢一个执行名额，已达到上限返回false
+     */
+    private boolean tryAcquire() {
+        while (true) {
+            int current = running.get();
+            if (current >= maxConcurrency) {
+                return false;
+            }
+            if (running.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+}
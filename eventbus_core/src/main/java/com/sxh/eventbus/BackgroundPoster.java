@@ -0,0 +1,75 @@
+package com.sxh.eventbus;
+
+import java.util.logging.Level;
+
+/**
+ * 后台投递器：所有投递放入同一个队列，同一时刻只有一个后台任务在依次执行，
+ * 突发大量事件时也只占用一个线程
+ */
+final class BackgroundPoster implements Runnable, Poster {
+
+    /**
+     * 队列为空时后台任务继续等待的时间，避免连续发布时频繁提交任务
+     */
+    private static final int MAX_MILLIS_TO_WAIT = 1000;
+
+    private final PendingPostQueue queue;
+    private final EventBus eventBus;
+    /**
+     * 后台任务是否正在运行，只在当前对象锁内读写
+     */
+    private boolean executorRunning;
+
+    BackgroundPoster(EventBus eventBus) {
+        this.eventBus = eventBus;
+        queue = new PendingPostQueue();
+    }
+
+    @Override
+    public void enqueue(Subscription subscription, Object event) {
+        PendingPost pendingPost = eventBus.pendingPostPool.obtain(subscription, event);
+        synchronized (this) {
+            queue.enqueue(pendingPost);
+            if (!executorRunning) {
+                executorRunning = true;
+                eventBus.getExecutorService().execute(this);
+            }
+        }
+    }
+
+    @Override
+    public void enqueueAll(PendingPostBatch batch) {
+        synchronized (this) {
+            queue.enqueueAll(batch);
+            if (!executorRunning) {
+                executorRunning = true;
+                eventBus.getExecutorService().execute(this);
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                PendingPost pendingPost = queue.poll(MAX_MILLIS_TO_WAIT);
+                if (pendingPost == null) {
+                    synchronized (this) {
+                        //加锁再检查一次，避免与enqueue竞争导致漏掉投递
+                        pendingPost = queue.poll();
+                        if (pendingPost == null) {
+                            executorRunning = false;
+                            return;
+                        }
+                    }
+                }
+                eventBus.invokeSubscriber(pendingPost);
+            }
+        } catch (InterruptedException e) {
+            eventBus.getLogger().log(Level.WARNING, Thread.currentThread().getName() + "后台投递线程被中断", e);
+            synchronized (this) {
+                executorRunning = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.sxh.eventbus;
+
+/**
+ * 可取消的定时发布，如postDelayed返回的延迟事件
+ */
+public interface Cancellable {
+
+    /**
+     * 取消，时间复杂度O(1)
+     *
+     * @return 是否取消成功，已经到期或已经取消时返回false
+     */
+    boolean cancel();
+}
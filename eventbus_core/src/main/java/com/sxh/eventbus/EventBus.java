@@ -0,0 +1,1348 @@
+package com.sxh.eventbus;
+
+import com.sxh.eventbus_annotation.ISubscriberInfoIndex;
+import com.sxh.eventbus_annotation.SubscriberInfo;
+import com.sxh.eventbus_annotation.SubscriberMethod;
+import com.sxh.eventbus_annotation.ThreadMode;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * EventBus框架使用入口
+ */
+public class EventBus {
+
+    static volatile EventBus sInstance;
+    private static final EventBusBuilder DEFAULT_BUILDER = new EventBusBuilder();
+    /**
+     * postParallelAsync直接在发布线程执行完时返回的已完成Future，不使用CompletableFuture，兼容Android API 24以下
+     */
+    private static final Future<?> COMPLETED_FUTURE = completedFuture();
+    /**
+     * postForResult超时，参数为结果收集器
+     */
+    private static final TimingWheel.Task RESULT_TIMEOUT_TASK = new TimingWheel.Task() {
+        @Override
+        public void run(Object argument) {
+            ((ResultCollector) argument).timeout();
+        }
+    };
+    /**
+     * APT生成索引类文件的实例合并后的查找表，这个很重要，需要通过EventBusBuilder.addIndex方法设置进去，否则无法从APT文件里找，这样就避免使用反射了
+     */
+    private final SubscriberInfoTable subscriberInfoTable;
+    /**
+     * 事件类型id表，合并了所有APT索引中的事件类型id
+     */
+    private final EventTypeTable eventTypeTable;
+    /**
+     * 订阅者持有的订阅句柄集合，比如：订阅者MainActivity的onEventLogin、onEventLogout对应的Subscription
+     * key：订阅者，如MainActivity
+     * value：该订阅者注册时创建的Subscription集合，解注册时据此精确移除，无需遍历所有事件类型
+     * 按订阅者对象本身（而不是equals）查找，equals相等的两个订阅者各自注册、解注册，互不影响
+     */
+    private final Map<Object, List<Subscription>> subscriptionsBySubscriber;
+    /**
+     * 弱引用注册的订阅者持有的订阅句柄集合，key为订阅者的弱引用，不阻止订阅者被回收
+     */
+    private final Map<SubscriberReference, List<Subscription>> subscriptionsByWeakSubscriber;
+    /**
+     * 弱引用注册的订阅者被回收后，其弱引用进入这个队列，注册、发布时取出并移除对应的订阅句柄
+     */
+    private final ReferenceQueue<Object> collectedSubscribers = new ReferenceQueue<>();
+    /**
+     * 是否有过弱引用注册，没有时发布不检查引用队列
+     */
+    private volatile boolean hasWeakSubscribers;
+    /**
+     * 方法缓存，与索引一样属于各个EventBus实例
+     * key：订阅者，如MainActivity.class
+     * value：订阅方法集合及对应的事件类型id
+     */
+    private final ConcurrentHashMap<Class<?>, SubscriberMethods> methodCache;
+    /**
+     * 事件订阅方法集合
+     * 下标：事件类型id，如LoginEvent.class对应的id
+     * 元素：所有订阅者中订阅该事件的方法集合，如MainActivity里的onEvent(LoginEvent event)方法、SecondActivity里的onEvent(LoginEvent event)方法
+     * <p>
+     * 读写分离：发布事件时不加锁直接读取数组快照；注册/解注册时在锁内复制出新数组再整体替换，复制的开销由注册方承担
+     */
+    private volatile Subscription[][] subscriptionsByEventType;
+    /**
+     * 粘性事件缓存，由stickyLock保护
+     * 下标：事件类型id，如LoginEvent.class对应的id
+     * 元素：如LoginEvent
+     */
+    private Object[] stickyEvents;
+    private final Object stickyLock = new Object();
+    /**
+     * 主线程支持，没有主线程的环境为null，此时所有线程都视为主线程
+     */
+    private final MainThreadSupport mainThreadSupport;
+    /**
+     * 跨线程投递的复用池，本EventBus的投递器共用，不与其他EventBus争用
+     */
+    final PendingPost.Pool pendingPostPool = new PendingPost.Pool();
+    /**
+     * 切换到主线程，同一批投递合并成一条主线程消息执行，没有主线程的环境为null
+     */
+    private final Poster mainThreadPoster;
+    /**
+     * 切换到唯一的后台线程，依次执行
+     */
+    private final BackgroundPoster backgroundPoster;
+    /**
+     * 切换到子线程，每次投递独立执行
+     */
+    private final AsyncPoster asyncPoster;
+    /**
+     * 切换到子线程，同一订阅者的投递在所属条带上依次执行
+     */
+    private final StripedPoster orderedAsyncPoster;
+    /**
+     * 后台投递使用的线程池，ASYNC未单独设置线程池时也使用它，可通过EventBusBuilder传入有界线程池
+     */
+    private final ExecutorService executorService;
+    private final Logger logger;
+    /**
+     * 并行发布使用的线程池
+     */
+    private final ForkJoinPool forkJoinPool;
+    /**
+     * 延迟发布、防抖、节流、postForResult超时的定时任务，加到进程内共用的时间轮上，到期后在executorService上执行
+     */
+    private final TimingWheel.Scheduler timerScheduler;
+    /**
+     * 按事件类型的防抖、节流，构建后只读，没有设置时为null
+     */
+    private final Map<Class<?>, RateLimiter> rateLimitersByType;
+    /**
+     * 延迟发布到期，参数为事件，所有延迟事件共用
+     */
+    private final TimingWheel.Task delayedPostTask = new TimingWheel.Task() {
+        @Override
+        public void run(Object argument) {
+            post(argument);
+        }
+    };
+    /**
+     * 并行发布的拆分阈值
+     */
+    private final int parallelThreshold;
+    /**
+     * 是否开启事件继承：开启后，订阅了父类或接口的方法也能收到子类事件，默认关闭
+     */
+    private final boolean eventInheritance;
+    /**
+     * 每个发布线程各自的发布状态，用于取消事件继续分发
+     */
+    private final ThreadLocal<PostingThreadState> currentPostingThreadState = new ThreadLocal<PostingThreadState>() {
+        @Override
+        protected PostingThreadState initialValue() {
+            return new PostingThreadState();
+        }
+    };
+
+    private EventBus() {
+        this(DEFAULT_BUILDER);
+    }
+
+    EventBus(EventBusBuilder builder) {
+        //初始化
+        List<ISubscriberInfoIndex> indexes = builder.subscriberInfoIndexes != null
+                ? builder.subscriberInfoIndexes
+                : Collections.<ISubscriberInfoIndex>emptyList();
+        logger = builder.getLogger();
+        //合并所有模块的索引，之后查找订阅者只需一次探测
+        subscriberInfoTable = new SubscriberInfoTable(indexes, logger);
+        //合并所有模块的事件类型id，为每个事件类型预留槽位
+        eventTypeTable = new EventTypeTable(indexes);
+        subscriptionsBySubscriber = new IdentityHashMap<>();
+        subscriptionsByWeakSubscriber = new HashMap<>();
+        methodCache = new ConcurrentHashMap<>();
+        subscriptionsByEventType = new Subscription[eventTypeTable.size()][];
+        stickyEvents = new Object[eventTypeTable.size()];
+        mainThreadSupport = builder.getMainThreadSupport();
+        mainThreadPoster = mainThreadSupport != null ? new MainThreadPoster(this, mainThreadSupport, builder.maxMillisInsideHandleMessage) : null;
+        executorService = builder.executorService != null
+                ? builder.executorService
+                : Executors.newCachedThreadPool();
+        backgroundPoster = new BackgroundPoster(this);
+        ExecutorService asyncExecutorService = builder.asyncExecutorService != null
+                ? builder.asyncExecutorService
+                : executorService;
+        asyncPoster = new AsyncPoster(this, asyncExecutorService, builder.maxAsyncConcurrency);
+        orderedAsyncPoster = new StripedPoster(this, asyncExecutorService, builder.orderedAsyncStripes);
+        forkJoinPool = builder.forkJoinPool != null ? builder.forkJoinPool : ForkJoinPool.commonPool();
+        parallelThreshold = builder.parallelThreshold;
+        eventInheritance = builder.eventInheritance;
+        timerScheduler = new TimingWheel.Scheduler(TimingWheel.shared(), executorService, logger);
+        rateLimitersByType = createRateLimiters(builder);
+    }
+
+    private Map<Class<?>, RateLimiter> createRateLimiters(EventBusBuilder builder) {
+        if (builder.debounceMillisByType == null && builder.throttleMillisByType == null) {
+            return null;
+        }
+        Map<Class<?>, RateLimiter> rateLimiters = new HashMap<>();
+        if (builder.debounceMillisByType != null) {
+            for (Map.Entry<Class<?>, Long> entry : builder.debounceMillisByType.entrySet()) {
+                rateLimiters.put(entry.getKey(), new TypeRateLimiter(true, entry.getValue()));
+            }
+        }
+        if (builder.throttleMillisByType != null) {
+            for (Map.Entry<Class<?>, Long> entry : builder.throttleMillisByType.entrySet()) {
+                rateLimiters.put(entry.getKey(), new TypeRateLimiter(false, entry.getValue()));
+            }
+        }
+        return rateLimiters;
+    }
+
+    /**
+     * 创建构建器，用于自定义配置，如：索引、线程池，每次build()得到一个独立的实例
+     */
+    public static EventBusBuilder builder() {
+        return new EventBusBuilder();
+    }
+
+    /**
+     * 获取默认实例，可以先通过EventBusBuilder.installDefaultEventBus()按自定义配置创建
+     */
+    public static EventBus getDefault() {
+        if (sInstance == null) {
+            synchronized (EventBus.class) {
+                if (sInstance == null) {
+                    sInstance = new EventBus();
+                }
+            }
+        }
+        return sInstance;
+    }
+
+    /**
+     * 订阅
+     *
+     * @param subscriber 订阅者，如MainActivity
+     */
+    public void register(Object subscriber) {
+        register(subscriber, false);
+    }
+
+    /**
+     * 弱引用注册：EventBus不持有订阅者的强引用，忘记解注册时订阅者（如Activity）仍然可以被回收，
+     * 回收后它的订阅句柄在下一次注册、发布时批量移除，不需要遍历所有订阅者，也不会再分发给它
+     * <p>
+     * 只被EventBus引用的对象随时可能被回收，不要用它注册没有其他引用的匿名内部类、lambda
+     */
+    public void registerWeak(Object subscriber) {
+        hasWeakSubscribers = true;
+        register(subscriber, true);
+    }
+
+    private void register(Object subscriber, boolean weak) {
+        purgeCollectedSubscribers();
+        //获取订阅者的class，如MainActivity.class
+        Class<?> subscriberClass = subscriber.getClass();
+        //寻找订阅者（MainActivity.class）订阅方法集合
+        SubscriberMethods subscriberMethods = findSubscriberMethods(subscriberClass);
+        //加锁，保证线程安全
+        synchronized (this) {
+            //同一次注册的订阅句柄共用一个弱引用，回收后一起移除
+            SubscriberReference subscriberReference = weak ? new SubscriberReference(subscriber, collectedSubscribers) : null;
+            for (int i = 0; i < subscriberMethods.methods.length; i++) {
+                //遍历订阅方法集合，依次挂到事件类型id对应的槽位上
+                subscribe(subscriber, subscriberReference, subscriberMethods.methods[i], subscriberMethods.eventTypeIds[i]);
+            }
+        }
+    }
+
+    /**
+     * 寻找订阅者（如MainActivity.class）里订阅方法集合
+     */
+    private SubscriberMethods findSubscriberMethods(Class<?> subscriberClass) {
+        //第一步：从方法缓存中读取
+        SubscriberMethods subscriberMethods = methodCache.get(subscriberClass);
+        //找到了缓存，直接返回
+        if (subscriberMethods != null) {
+            return subscriberMethods;
+        }
+        //第二步：从APT生成的类文件中寻找
+        subscriberMethods = findUsingInfo(subscriberClass);
+        if (subscriberMethods != null) {
+            //找到了，直接放入方法缓存，下次就不用去文件里找了
+            //索引每次都会新建订阅方法对象，并发注册时以先放入缓存的为准，保证同一订阅者类只有一份订阅方法
+            SubscriberMethods cached = methodCache.putIfAbsent(subscriberClass, subscriberMethods);
+            if (cached != null) {
+                subscriberMethods = cached;
+            }
+        }
+        return subscriberMethods;
+    }
+
+    /**
+     * 实际订阅方法
+     *
+     * @param subscriberReference 弱引用注册时订阅者的弱引用，普通注册为null
+     */
+    private void subscribe(Object subscriber, SubscriberReference subscriberReference,
+                           SubscriberMethod subscriberMethod, int eventTypeId) {
+        //创建Subscription对象，用于临时存储订阅者和订阅方法，弱引用注册时不持有订阅者
+        Subscription subscription = subscriberReference != null
+                ? new Subscription(subscriberReference, subscriberMethod, eventTypeId)
+                : new Subscription(subscriber, subscriberMethod, eventTypeId);
+        if (subscriberMethod.getDebounceMillis() > 0) {
+            subscription.rateLimiter = new SubscriptionRateLimiter(subscription, true, subscriberMethod.getDebounceMillis());
+        } else if (subscriberMethod.getThrottleMillis() > 0) {
+            subscription.rateLimiter = new SubscriptionRateLimiter(subscription, false, subscriberMethod.getThrottleMillis());
+        }
+        //读取事件订阅方法集合缓存
+        Subscription[] subscriptions = getSubscriptions(eventTypeId);
+        if (subscriptions == null) {
+            // 初始化集合
+            subscriptions = new Subscription[0];
+        } else {
+            for (Subscription existing : subscriptions) {
+                if (existing.equals(subscription)) {
+                    logger.log(Level.SEVERE, subscriber.getClass() + "重复注册粘性事件！");
+                    // 执行多次粘性事件，但不添加到集合，避免订阅方法多次执行
+                    sticky(subscription);
+                    return;
+                }
+            }
+        }
+        //按优先级找到插入位置（优先级高的在前，同优先级按注册顺序），发布时直接按数组顺序执行即可
+        int priority = subscriberMethod.getPriority();
+        int position = subscriptions.length;
+        for (int i = 0; i < subscriptions.length; i++) {
+            if (priority > subscriptions[i].subscriberMethod.getPriority()) {
+                position = i;
+                break;
+            }
+        }
+        //复制出新数组并插入，再整体替换，正在发布的线程仍然读取旧快照
+        Subscription[] newSubscriptions = new Subscription[subscriptions.length + 1];
+        System.arraycopy(subscriptions, 0, newSubscriptions, 0, position);
+        newSubscriptions[position] = subscription;
+        System.arraycopy(subscriptions, position, newSubscriptions, position + 1, subscriptions.length - position);
+        // 存入缓存
+        setSubscriptions(eventTypeId, newSubscriptions);
+
+        //订阅者句柄集合，比如：订阅者MainActivity注册了哪些订阅方法
+        List<Subscription> subscribed;
+        if (subscriberReference != null) {
+            subscribed = subscriptionsByWeakSubscriber.get(subscriberReference);
+            if (subscribed == null) {
+                subscribed = new ArrayList<>();
+                subscriptionsByWeakSubscriber.put(subscriberReference, subscribed);
+            }
+        } else {
+            subscribed = subscriptionsBySubscriber.get(subscriber);
+            if (subscribed == null) {
+                subscribed = new ArrayList<>();
+                //存入缓存
+                subscriptionsBySubscriber.put(subscriber, subscribed);
+            }
+        }
+        //将句柄存入订阅者对应的List列表里
+        subscribed.add(subscription);
+        //处理粘性事件
+        sticky(subscription);
+    }
+
+    /**
+     * 读取事件类型id对应槽位上的订阅者数组快照，没有则返回null
+     */
+    private Subscription[] getSubscriptions(int eventTypeId) {
+        Subscription[][] table = subscriptionsByEventType;
+        return eventTypeId < table.length ? table[eventTypeId] : null;
+    }
+
+    /**
+     * 替换事件类型id对应槽位上的订阅者数组，必须在锁内调用
+     * 复制出新的槽位数组再整体发布，发布线程读到的始终是完整的快照
+     */
+    private void setSubscriptions(int eventTypeId, Subscription[] subscriptions) {
+        Subscription[][] table = subscriptionsByEventType;
+        //APT索引之外的事件类型会在运行时分配新id，必要时扩容
+        int length = Math.max(table.length, Math.max(eventTypeId + 1, eventTypeTable.size()));
+        Subscription[][] newTable = Arrays.copyOf(table, length);
+        newTable[eventTypeId] = subscriptions;
+        subscriptionsByEventType = newTable;
+    }
+
+    /**
+     * 粘性事件单独处理
+     *
+     * @param subscription
+     */
+    private void sticky(Subscription subscription) {
+        //粘性事件是指之前发送了某个粘性事件，当时订阅者还未订阅，这时候只要订阅者一订阅，就可以收到之前发出的事件
+        if (subscription.subscriberMethod.isSticky()) {
+            if (eventInheritance) {
+                //开启事件继承时，子类类型的粘性事件也要触发
+                Class<?> eventType = subscription.subscriberMethod.getEventTypeClass();
+                List<Object> matchedEvents = new ArrayList<>();
+                synchronized (stickyLock) {
+                    for (Object stickyEvent : stickyEvents) {
+                        if (stickyEvent != null && eventType.isAssignableFrom(stickyEvent.getClass())) {
+                            matchedEvents.add(stickyEvent);
+                        }
+                    }
+                }
+                for (Object stickyEvent : matchedEvents) {
+                    postToSubscription(subscription, stickyEvent, null);
+                }
+                return;
+            }
+            //从粘性事件的缓存里按事件类型id找
+            Object stickyEvent;
+            synchronized (stickyLock) {
+                stickyEvent = subscription.eventTypeId < stickyEvents.length
+                        ? stickyEvents[subscription.eventTypeId]
+                        : null;
+            }
+            //如果存在该事件，就直接触发当前订阅者订阅该粘性事件的方法
+            if (stickyEvent != null) {
+                postToSubscription(subscription, stickyEvent, null);
+            }
+        }
+    }
+
+    /**
+     * 从APT生成的类文件中寻找订阅方法集合
+     */
+    private SubscriberMethods findUsingInfo(Class<?> subscriberClass) {
+        //检查是否添加了APT文件生成的索引，即APT生成类的实例化对象
+        if (subscriberInfoTable.getIndexCount() == 0) {
+            throw new RuntimeException("未添加索引，请调用EventBusBuilder.addIndex()方法添加APT生成索引类的实例对象");
+        }
+        //在合并后的索引表里，找订阅方法集合，比如用MainActivity.class去找MainActivity所有订阅方法
+        int indexPosition = subscriberInfoTable.findIndexPosition(subscriberClass);
+        if (indexPosition < 0) return null;
+        SubscriberInfo info = subscriberInfoTable.getSubscriberInfo(indexPosition, subscriberClass);
+        if (info == null) return null;
+        SubscriberMethod[] methods = info.getSubscriberMethods();
+        //把APT分配的本地事件类型id换算成当前EventBus的全局id
+        int[] eventTypeIds = new int[methods.length];
+        for (int i = 0; i < methods.length; i++) {
+            eventTypeIds[i] = eventTypeTable.toGlobalId(indexPosition, methods[i].getEventTypeId());
+        }
+        //返回订阅方法的集合
+        return new SubscriberMethods(methods, eventTypeIds);
+    }
+
+    /**
+     * 是否订阅
+     *
+     * @param subscriber
+     * @return
+     */
+    public synchronized boolean isRegistered(Object subscriber) {
+        return subscriptionsBySubscriber.containsKey(subscriber)
+                || (!subscriptionsByWeakSubscriber.isEmpty()
+                && subscriptionsByWeakSubscriber.containsKey(new SubscriberReference(subscriber, null)));
+    }
+
+    /**
+     * 获取所有设置了信箱容量的ASYNC订阅方法的信箱状态：等待执行的事件数、丢弃数等
+     */
+    public synchronized List<MailboxStats> getMailboxStats() {
+        List<MailboxStats> stats = new ArrayList<>();
+        addMailboxStats(subscriptionsBySubscriber.values(), stats);
+        addMailboxStats(subscriptionsByWeakSubscriber.values(), stats);
+        return stats;
+    }
+
+    private static void addMailboxStats(Collection<List<Subscription>> subscribed, List<MailboxStats> stats) {
+        for (List<Subscription> subscriptions : subscribed) {
+            for (Subscription subscription : subscriptions) {
+                if (subscription.mailbox != null) {
+                    stats.add(new MailboxStats(subscription, subscription.mailbox));
+                }
+            }
+        }
+    }
+
+    /**
+     * 解除订阅
+     *
+     * @param subscriber
+     */
+    public synchronized void unregister(Object subscriber) {
+        purgeCollectedSubscribers();
+        //从缓存中移除
+        List<Subscription> subscribed = subscriptionsBySubscriber.remove(subscriber);
+        if (subscribed == null && !subscriptionsByWeakSubscriber.isEmpty()) {
+            subscribed = subscriptionsByWeakSubscriber.remove(new SubscriberReference(subscriber, null));
+        }
+        if (subscribed != null) {
+            //只处理该订阅者自己的句柄，依次从对应事件类型的数组中移除
+            for (Subscription subscription : subscribed) {
+                unsubscribe(subscription);
+            }
+        }
+    }
+
+    /**
+     * 取出引用队列中已被回收的弱引用订阅者，批量移除它们的订阅句柄，队列为空时不加锁
+     */
+    private void purgeCollectedSubscribers() {
+        Reference<?> reference = collectedSubscribers.poll();
+        if (reference == null) {
+            return;
+        }
+        synchronized (this) {
+            do {
+                List<Subscription> subscribed = subscriptionsByWeakSubscriber.remove(reference);
+                if (subscribed != null) {
+                    for (Subscription subscription : subscribed) {
+                        unsubscribe(subscription);
+                    }
+                }
+            } while ((reference = collectedSubscribers.poll()) != null);
+        }
+    }
+
+    /**
+     * 从事件订阅方法集合中移除单个订阅句柄
+     */
+    private void unsubscribe(Subscription subscription) {
+        //标记失效，已经切换到主线程/子线程排队的事件不再执行
+        subscription.active = false;
+        if (subscription.conflatedEvent != null) {
+            //不再持有未执行的事件
+            subscription.conflatedEvent.set(null);
+        }
+        if (subscription.mailbox != null) {
+            //丢弃信箱中未执行的事件，唤醒因信箱已满而阻塞的发布线程
+            subscription.mailbox.close();
+        }
+        if (subscription.rateLimiter != null) {
+            //丢弃防抖、节流暂存的事件
+            subscription.rateLimiter.cancel();
+        }
+        int eventTypeId = subscription.eventTypeId;
+        Subscription[] subscriptions = getSubscriptions(eventTypeId);
+        if (subscriptions == null) {
+            return;
+        }
+        for (int i = 0; i < subscriptions.length; i++) {
+            if (subscriptions[i] == subscription) {
+                if (subscriptions.length == 1) {
+                    setSubscriptions(eventTypeId, null);
+                } else {
+                    //复制出不含该句柄的新数组，再整体替换
+                    Subscription[] newSubscriptions = new Subscription[subscriptions.length - 1];
+                    System.arraycopy(subscriptions, 0, newSubscriptions, 0, i);
+                    System.arraycopy(subscriptions, i + 1, newSubscriptions, i, subscriptions.length - i - 1);
+                    setSubscriptions(eventTypeId, newSubscriptions);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * 发送粘性事件
+     */
+    public void postSticky(Object event) {
+        //粘性事件的类型可能不在APT索引中，没有id时分配一个
+        int eventTypeId = eventTypeTable.idOf(event.getClass());
+        synchronized (stickyLock) {
+            if (eventTypeId >= stickyEvents.length) {
+                stickyEvents = Arrays.copyOf(stickyEvents, Math.max(eventTypeId + 1, eventTypeTable.size()));
+            }
+            //加入粘性事件缓存集合
+            stickyEvents[eventTypeId] = event;
+        }
+        // 这里就是解决源码里的bug：只要参数匹配，粘性/非粘性订阅方法全部执行
+        // post(event);
+    }
+
+    /**
+     * 获取指定类型的粘性事件
+     */
+    public <T> T getStickyEvent(Class<T> eventType) {
+        int eventTypeId = eventTypeTable.find(eventType);
+        synchronized (stickyLock) {
+            if (eventTypeId < 0 || eventTypeId >= stickyEvents.length) {
+                return null;
+            }
+            //直接在粘性事件缓存找
+            return eventType.cast(stickyEvents[eventTypeId]);
+        }
+    }
+
+    /**
+     * 移除指定类型的粘性事件
+     */
+    public <T> T removeStickyEvent(Class<T> eventType) {
+        int eventTypeId = eventTypeTable.find(eventType);
+        synchronized (stickyLock) {
+            if (eventTypeId < 0 || eventTypeId >= stickyEvents.length) {
+                return null;
+            }
+            //直接在粘性事件缓存移除
+            Object stickyEvent = stickyEvents[eventTypeId];
+            stickyEvents[eventTypeId] = null;
+            return eventType.cast(stickyEvent);
+        }
+    }
+
+    /**
+     * 移除所有粘性事件
+     */
+    public void removeAllStickyEvents() {
+        synchronized (stickyLock) {
+            //直接清理粘性事件缓存
+            Arrays.fill(stickyEvents, null);
+        }
+    }
+
+    /**
+     * 发送事件
+     * <p>
+     * 订阅方法里再次发布的事件不会立即分发，而是排到当前线程的发布队列末尾，由最外层的post依次取出，
+     * 调用栈深度不随事件链增长，分发顺序与发布顺序一致（先进先出）
+     *
+     * @param event
+     */
+    public void post(Object event) {
+        if (event == null) {
+            throw new NullPointerException("发布的事件不能为空");
+        }
+        if (hasWeakSubscribers) {
+            //移除已被回收的订阅者，不再分发给它们
+            purgeCollectedSubscribers();
+        }
+        if (!passRateLimit(event)) {
+            //该事件类型设置了防抖、节流：暂不发布，由定时器到期后发布
+            return;
+        }
+        postNow(event);
+    }
+
+    /**
+     * 按事件类型的防抖、节流检查
+     *
+     * @return 是否立即发布
+     */
+    private boolean passRateLimit(Object event) {
+        if (rateLimitersByType == null) {
+            return true;
+        }
+        RateLimiter rateLimiter = rateLimitersByType.get(event.getClass());
+        return rateLimiter == null || rateLimiter.offer(event);
+    }
+
+    private void postNow(Object event) {
+        PostingThreadState postingState = currentPostingThreadState.get();
+        postingState.enqueue(event);
+        if (postingState.isPosting) {
+            //外层的post正在分发，入队即可
+            return;
+        }
+        postingState.isPosting = true;
+        try {
+            Object queuedEvent;
+            while ((queuedEvent = postingState.poll()) != null) {
+                postSingleEvent(queuedEvent, postingState);
+            }
+        } finally {
+            postingState.isPosting = false;
+            postingState.event = null;
+            postingState.subscription = null;
+            postingState.canceled = false;
+            postingState.reset();
+        }
+    }
+
+    /**
+     * 延迟发布，delayMillis毫秒后由定时器发布，精度为10毫秒
+     * <p>
+     * 进程内所有EventBus的延迟事件共用一个时间轮和一个定时线程，添加、取消都是O(1)，不需要为每个事件创建Handler消息或ScheduledFuture；
+     * 到期的事件在线程池上依次发布，POSTING订阅方法在该线程上执行
+     *
+     * @return 可以在发布前取消
+     */
+    public Cancellable postDelayed(Object event, long delayMillis) {
+        if (event == null) {
+            throw new NullPointerException("发布的事件不能为空");
+        }
+        return timerScheduler.schedule(delayedPostTask, event, TimeUnit.MILLISECONDS.toNanos(delayMillis));
+    }
+
+    /**
+     * 并行发布，适合订阅方法很多、且都是耗CPU计算的事件，等所有POSTING订阅方法执行完才返回
+     * <p>
+     * POSTING订阅方法拆分到ForkJoinPool上并行执行，数量不超过拆分阈值时直接在当前线程依次执行；
+     * 其他线程模式的订阅方法照常切换线程，不等待。并行执行时不保证优先级顺序，也不能取消事件
+     * <p>
+     * 与post一样先经过按事件类型的防抖、节流，被暂存的事件到期后按普通post发布，这次调用直接返回；
+     * 设置了防抖、节流的订阅方法不参与并行，照常由各自的限流器投递
+     */
+    public void postParallel(Object event) {
+        ParallelPostTask task = dispatchParallel(event);
+        if (task != null) {
+            forkJoinPool.invoke(task);
+        }
+    }
+
+    /**
+     * 并行发布，不等待，见{@link #postParallel(Object)}
+     *
+     * @return 所有POSTING订阅方法执行完时完成；数量不超过拆分阈值时已在当前线程执行完，返回已完成的Future
+     */
+    public Future<?> postParallelAsync(Object event) {
+        ParallelPostTask task = dispatchParallel(event);
+        if (task == null) {
+            return COMPLETED_FUTURE;
+        }
+        return forkJoinPool.submit(task);
+    }
+
+    private static Future<?> completedFuture() {
+        FutureTask<Void> future = new FutureTask<>(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }, null);
+        future.run();
+        return future;
+    }
+
+    /**
+     * 其他线程模式的订阅方法照常切换线程，收集POSTING订阅方法，数量不超过阈值时直接执行并返回null，否则返回待执行的并行任务
+     */
+    private ParallelPostTask dispatchParallel(Object event) {
+        if (event == null) {
+            throw new NullPointerException("发布的事件不能为空");
+        }
+        if (hasWeakSubscribers) {
+            purgeCollectedSubscribers();
+        }
+        if (!passRateLimit(event)) {
+            return null;
+        }
+        List<Subscription> parallel = new ArrayList<>();
+        for (Subscription subscription : findSubscriptions(event)) {
+            if (subscription.subscriberMethod.getThreadMode() == ThreadMode.POSTING && subscription.rateLimiter == null) {
+                parallel.add(subscription);
+            } else {
+                postToSubscription(subscription, event, null);
+            }
+        }
+        if (parallel.size() <= parallelThreshold) {
+            for (Subscription subscription : parallel) {
+                invokeSubscriber(subscription, event);
+            }
+            return null;
+        }
+        return new ParallelPostTask(this, parallel, 0, parallel.size(), event, parallelThreshold);
+    }
+
+    /**
+     * 请求/应答式发布：所有订阅该事件的方法（任意线程模式）都执行完后，按订阅顺序汇总有返回值的方法的结果交给回调，
+     * 调用方不需要再发布一个应答事件，也不需要阻塞等待
+     * <p>
+     * 需要切换线程的投递先入队，再在当前线程执行其余订阅方法；这些投递不合并、不进入信箱，也不能取消事件。
+     * 有订阅方法抛出异常时，以第一个异常回调onError。使用回调而不是CompletableFuture，Android API 24以下也能使用，
+     * JVM上可以通过JvmFutures转换成CompletableFuture
+     * <p>
+     * 防抖、节流（按事件类型和按订阅方法）对它都不生效：每次请求都要得到应答，暂存或丢弃请求会让调用方一直等不到回调
+     */
+    public void postForResult(Object event, ResultCallback callback) {
+        dispatchForResult(event, callback, -1);
+    }
+
+    /**
+     * 请求/应答式发布，超时后以TimeoutException回调onError，之后执行完的订阅方法结果被忽略，见{@link #postForResult(Object, ResultCallback)}
+     */
+    public void postForResult(Object event, long timeout, TimeUnit unit, ResultCallback callback) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("超时时间不能小于0");
+        }
+        dispatchForResult(event, callback, unit.toNanos(timeout));
+    }
+
+    /**
+     * @param timeoutNanos 超时时间，小于0表示不限制
+     */
+    private void dispatchForResult(Object event, ResultCallback callback, long timeoutNanos) {
+        if (event == null) {
+            throw new NullPointerException("发布的事件不能为空");
+        }
+        if (callback == null) {
+            throw new NullPointerException("结果回调不能为空");
+        }
+        if (hasWeakSubscribers) {
+            purgeCollectedSubscribers();
+        }
+        List<Subscription> subscriptions = findSubscriptions(event);
+        if (subscriptions.isEmpty()) {
+            callback.onResult(new ArrayList<Object>());
+            return;
+        }
+        ResultCollector collector = new ResultCollector(subscriptions.size(), callback, logger);
+        if (timeoutNanos >= 0) {
+            //分发前设置，订阅方法执行完时一定能看到并取消它
+            collector.timeoutTask = timerScheduler.schedule(RESULT_TIMEOUT_TASK, collector, timeoutNanos);
+        }
+        PendingPostBatch mainThreadBatch = new PendingPostBatch();
+        PendingPostBatch backgroundBatch = new PendingPostBatch();
+        PendingPostBatch asyncBatch = new PendingPostBatch();
+        PendingPostBatch orderedAsyncBatch = new PendingPostBatch();
+        boolean[] inline = new boolean[subscriptions.size()];
+        for (int i = 0; i < subscriptions.size(); i++) {
+            Subscription subscription = subscriptions.get(i);
+            PendingPostBatch batch;
+            switch (subscription.subscriberMethod.getThreadMode()) {
+                case POSTING:
+                    batch = null;
+                    break;
+                case MAIN:
+                    batch = mainThreadPoster == null || isMainThread() ? null : mainThreadBatch;
+                    break;
+                case BACKGROUND:
+                    batch = isMainThread() ? backgroundBatch : null;
+                    break;
+                case ASYNC:
+                    batch = asyncBatch;
+                    break;
+                case ORDERED_ASYNC:
+                    batch = orderedAsyncBatch;
+                    break;
+                default:
+                    throw new IllegalStateException("线程配置异常：" + subscription.subscriberMethod.getThreadMode());
+            }
+            if (batch == null) {
+                inline[i] = true;
+            } else {
+                PendingPost pendingPost = pendingPostPool.obtain(subscription, event);
+                pendingPost.collector = collector;
+                pendingPost.resultIndex = i;
+                batch.add(pendingPost);
+            }
+        }
+        flushBatch(mainThreadPoster, mainThreadBatch);
+        flushBatch(backgroundPoster, backgroundBatch);
+        flushBatch(asyncPoster, asyncBatch);
+        flushBatch(orderedAsyncPoster, orderedAsyncBatch);
+        for (int i = 0; i < subscriptions.size(); i++) {
+            if (inline[i]) {
+                invokeForResult(subscriptions.get(i), event, collector, i);
+            }
+        }
+    }
+
+    /**
+     * 找出订阅该事件的所有方法，开启事件继承时依次加上父类、接口的订阅方法
+     */
+    private List<Subscription> findSubscriptions(Object event) {
+        List<Subscription> found = new ArrayList<>();
+        if (eventInheritance) {
+            for (int eventTypeId : eventTypeTable.allEventTypeIds(event.getClass())) {
+                addSubscriptions(eventTypeId, found);
+            }
+        } else {
+            int eventTypeId = eventTypeTable.find(event.getClass());
+            if (eventTypeId >= 0) {
+                addSubscriptions(eventTypeId, found);
+            }
+        }
+        return found;
+    }
+
+    private void addSubscriptions(int eventTypeId, List<Subscription> found) {
+        Subscription[] subscriptions = getSubscriptions(eventTypeId);
+        if (subscriptions != null) {
+            Collections.addAll(found, subscriptions);
+        }
+    }
+
+    /**
+     * 批量发布，如同步完成后一次发出大量事件
+     * <p>
+     * 事件按类型分组，同一类型的事件连续分发，订阅者只查找一次；同一类型内保持发布顺序，不同类型按第一次出现的顺序。
+     * 需要切换线程的投递先暂存起来，全部分发完后每个投递器只入队一次，如主线程只收到一条消息
+     */
+    public void postAll(Object... events) {
+        postAll(Arrays.asList(events));
+    }
+
+    /**
+     * 批量发布，见{@link #postAll(Object...)}
+     */
+    public void postAll(Collection<?> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        if (hasWeakSubscribers) {
+            purgeCollectedSubscribers();
+        }
+        PostingThreadState postingState = currentPostingThreadState.get();
+        if (postingState.isPosting) {
+            //订阅方法里批量发布，与post一样依次排到发布队列末尾
+            for (Object event : events) {
+                if (event == null) {
+                    throw new NullPointerException("发布的事件不能为空");
+                }
+                if (passRateLimit(event)) {
+                    postingState.enqueue(event);
+                }
+            }
+            return;
+        }
+        //按事件类型分组，保持每个类型内的发布顺序
+        Map<Class<?>, List<Object>> eventsByType = new LinkedHashMap<>();
+        for (Object event : events) {
+            if (event == null) {
+                throw new NullPointerException("发布的事件不能为空");
+            }
+            if (!passRateLimit(event)) {
+                //与post一样，被防抖、节流暂存的事件由定时器到期后发布
+                continue;
+            }
+            List<Object> sameTypeEvents = eventsByType.get(event.getClass());
+            if (sameTypeEvents == null) {
+                sameTypeEvents = new ArrayList<>();
+                eventsByType.put(event.getClass(), sameTypeEvents);
+            }
+            sameTypeEvents.add(event);
+        }
+        postingState.isPosting = true;
+        postingState.batching = true;
+        try {
+            for (List<Object> sameTypeEvents : eventsByType.values()) {
+                for (Object event : sameTypeEvents) {
+                    postSingleEvent(event, postingState);
+                }
+            }
+            //订阅方法里再次发布的事件同样进入本批
+            Object queuedEvent;
+            while ((queuedEvent = postingState.poll()) != null) {
+                postSingleEvent(queuedEvent, postingState);
+            }
+            flushBatch(mainThreadPoster, postingState.mainThreadBatch);
+            flushBatch(backgroundPoster, postingState.backgroundBatch);
+            flushBatch(asyncPoster, postingState.asyncBatch);
+            flushBatch(orderedAsyncPoster, postingState.orderedAsyncBatch);
+        } finally {
+            postingState.isPosting = false;
+            postingState.batching = false;
+            postingState.event = null;
+            postingState.subscription = null;
+            postingState.canceled = false;
+            postingState.reset();
+        }
+    }
+
+    private static void flushBatch(Poster poster, PendingPostBatch batch) {
+        if (!batch.isEmpty()) {
+            try {
+                poster.enqueueAll(batch);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 分发发布队列中的一个事件
+     */
+    private void postSingleEvent(Object event, PostingThreadState postingState) {
+        postingState.event = event;
+        postingState.canceled = false;
+        Class<?> eventClass = event.getClass();
+        //连续发布同一类型的事件时，复用上一次查到的事件类型id
+        boolean sameType = eventClass == postingState.lastEventClass;
+        if (eventInheritance) {
+            //依次分发给事件自身、父类、接口的订阅方法
+            int[] eventTypeIds;
+            if (sameType) {
+                eventTypeIds = postingState.lastEventTypeIds;
+            } else {
+                eventTypeIds = eventTypeTable.allEventTypeIds(eventClass);
+                postingState.lastEventClass = eventClass;
+                postingState.lastEventTypeIds = eventTypeIds;
+            }
+            for (int eventTypeId : eventTypeIds) {
+                postSingleEventForEventType(event, eventTypeId, postingState);
+                if (postingState.canceled) {
+                    break;
+                }
+            }
+        } else {
+            int eventTypeId;
+            if (sameType) {
+                eventTypeId = postingState.lastEventTypeId;
+            } else {
+                //事件类型id，从未被订阅过的事件类型直接返回
+                eventTypeId = eventTypeTable.find(eventClass);
+                if (eventTypeId < 0) {
+                    //不缓存-1，分发过程中可能有订阅者注册这个类型
+                    return;
+                }
+                //id分配后不再变化，可以放心复用
+                postingState.lastEventClass = eventClass;
+                postingState.lastEventTypeId = eventTypeId;
+            }
+            postSingleEventForEventType(event, eventTypeId, postingState);
+        }
+    }
+
+    /**
+     * 按事件类型id发布
+     */
+    private void postSingleEventForEventType(Object event, int eventTypeId, PostingThreadState postingState) {
+        //从事件订阅方法集合里找出所有订阅该事件的方法，无需加锁，按id读取不可变的数组快照
+        Subscription[] subscriptions = getSubscriptions(eventTypeId);
+        if (subscriptions == null) {
+            return;
+        }
+        //数组已按优先级排好序，依次遍历执行
+        for (Subscription subscription : subscriptions) {
+            postingState.subscription = subscription;
+            postToSubscription(subscription, event, postingState);
+            //高优先级的订阅方法取消了事件，后面的订阅方法不再执行
+            if (postingState.canceled) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * 取消事件继续分发，优先级低的订阅方法将不再收到该事件
+     * 只能在POSTING线程模式的订阅方法中调用，并且只能取消当前正在处理的事件
+     *
+     * @param event 当前正在处理的事件
+     */
+    public void cancelEventDelivery(Object event) {
+        PostingThreadState postingState = currentPostingThreadState.get();
+        if (!postingState.isPosting) {
+            throw new IllegalStateException("只能在订阅方法中、并且在发布线程上取消事件");
+        } else if (event == null) {
+            throw new IllegalArgumentException("取消的事件不能为空");
+        } else if (postingState.event != event) {
+            throw new IllegalArgumentException("只能取消当前正在处理的事件");
+        } else if (postingState.subscription.subscriberMethod.getThreadMode() != ThreadMode.POSTING) {
+            throw new IllegalArgumentException("只有POSTING线程模式的订阅方法才能取消事件");
+        }
+        postingState.canceled = true;
+    }
+
+    /**
+     * 执行订阅事件的方法，主要处理线程切换工作
+     *
+     * @param subscription 订阅者封装对象，包含MainActivity里的onEvent(LoginEvent event)方法
+     * @param event        事件对象
+     * @param postingState 发布线程状态，批量发布时需要切换线程的投递先暂存到其中，粘性事件回放时为null
+     */
+    private void postToSubscription(Subscription subscription, Object event, PostingThreadState postingState) {
+        if (subscription.rateLimiter != null && !subscription.rateLimiter.offer(event)) {
+            //订阅方法设置了防抖、节流：暂不投递，由定时器到期后投递
+            return;
+        }
+        deliverToSubscription(subscription, event, postingState);
+    }
+
+    /**
+     * 按线程模式投递给订阅方法
+     */
+    private void deliverToSubscription(Subscription subscription, Object event, PostingThreadState postingState) {
+        //线程切换操作
+        switch (subscription.subscriberMethod.getThreadMode()) {
+            case POSTING:
+                //订阅、发布在同一线程，直接执行
+                invokeSubscriber(subscription, event);
+                break;
+            case MAIN:
+                //合并投递即使在主线程发布也要排队，保证只执行最新的事件，主线程的执行次数取决于消息循环而不是发布频率
+                if (mainThreadPoster == null || (isMainThread() && subscription.conflatedEvent == null)) {
+                    //订阅在主线程，发布在主线程，直接执行
+                    invokeSubscriber(subscription, event);
+                } else {
+                    //订阅在主线程，发布在子线程（或合并投递），放入主线程投递队列，由同一条消息批量执行
+                    PendingPostBatch batch = postingState != null && postingState.batching ? postingState.mainThreadBatch : null;
+                    enqueue(mainThreadPoster, batch, subscription, event);
+                }
+                break;
+            case BACKGROUND:
+                if (isMainThread() || subscription.conflatedEvent != null) {
+                    //订阅在后台线程，发布在主线程（或合并投递），放入唯一的后台队列依次执行
+                    PendingPostBatch batch = postingState != null && postingState.batching ? postingState.backgroundBatch : null;
+                    enqueue(backgroundPoster, batch, subscription, event);
+                } else {
+                    //订阅在后台线程，发布在子线程，直接执行
+                    invokeSubscriber(subscription, event);
+                }
+                break;
+            case ASYNC: {
+                if (subscription.mailbox != null) {
+                    //有界信箱：放入信箱，没有执行任务时才提交一个；BLOCK策略可能在这里等待，不能暂存到批次里，否则等不到执行
+                    if (subscription.mailbox.offer(event)) {
+                        asyncPoster.enqueue(subscription, null);
+                    }
+                    break;
+                }
+                //订阅在子线程，无论在哪个线程发布，都交给线程池单独执行
+                PendingPostBatch batch = postingState != null && postingState.batching ? postingState.asyncBatch : null;
+                enqueue(asyncPoster, batch, subscription, event);
+                break;
+            }
+            case ORDERED_ASYNC: {
+                //订阅在子线程，放入订阅者所属的条带，与该订阅者的其他投递按发布顺序依次执行
+                PendingPostBatch batch = postingState != null && postingState.batching ? postingState.orderedAsyncBatch : null;
+                enqueue(orderedAsyncPoster, batch, subscription, event);
+                break;
+            }
+            default:
+                throw new IllegalStateException("线程配置异常：" + subscription.subscriberMethod.getThreadMode());
+        }
+    }
+
+    /**
+     * 放入投递器的队列，批量发布时先暂存到批次里，分发完再整体入队
+     * <p>
+     * 合并投递的订阅方法已有未执行的投递时，只把事件替换成最新的，不再入队；队列里不持有事件，执行时再取最新的
+     */
+    private void enqueue(Poster poster, PendingPostBatch batch, Subscription subscription, Object event) {
+        if (subscription.conflatedEvent != null) {
+            if (subscription.conflatedEvent.getAndSet(event) != null) {
+                return;
+            }
+            event = null;
+        }
+        if (batch != null) {
+            batch.add(pendingPostPool.obtain(subscription, event));
+        } else {
+            poster.enqueue(subscription, event);
+        }
+    }
+
+    /**
+     * 当前是否在主线程，没有主线程的环境始终返回true
+     */
+    private boolean isMainThread() {
+        return mainThreadSupport == null || mainThreadSupport.isMainThread();
+    }
+
+    ExecutorService getExecutorService() {
+        return executorService;
+    }
+
+    Logger getLogger() {
+        return logger;
+    }
+
+    /**
+     * 执行排队中的事件投递，供投递器调用
+     */
+    void invokeSubscriber(PendingPost pendingPost) {
+        Object event = pendingPost.event;
+        Subscription subscription = pendingPost.subscription;
+        ResultCollector collector = pendingPost.collector;
+        int resultIndex = pendingPost.resultIndex;
+        //先回收再执行，订阅方法里再次跨线程发布时可以直接复用
+        pendingPostPool.release(pendingPost);
+        if (collector != null) {
+            //请求/应答投递：直接执行并收集结果
+            invokeForResult(subscription, event, collector, resultIndex);
+            return;
+        }
+        if (subscription.conflatedEvent != null) {
+            //合并投递：取出排队期间最新的事件，先清空槽位，执行期间的新事件会重新入队
+            event = subscription.conflatedEvent.getAndSet(null);
+            if (event == null) {
+                //已解注册
+                return;
+            }
+        } else if (subscription.mailbox != null) {
+            //有界信箱：依次执行信箱中的事件，直到取空
+            Object mailboxEvent;
+            while ((mailboxEvent = subscription.mailbox.poll()) != null) {
+                invokeSubscriber(subscription, mailboxEvent);
+            }
+            return;
+        }
+        invokeSubscriber(subscription, event);
+    }
+
+    /**
+     * 执行订阅方法，即onEvent(LoginEvent event)
+     */
+    void invokeSubscriber(Subscription subscription, Object event) {
+        //排队期间订阅者可能已经解注册
+        if (!subscription.active) {
+            return;
+        }
+        Object subscriber = subscription.getSubscriber();
+        if (subscriber == null) {
+            //弱引用的订阅者已被回收，等待下一次注册、发布时移除
+            return;
+        }
+        try {
+            //最终通过APT生成的执行器直接调用订阅方法，不再反射
+            subscription.subscriberMethod.getInvoker().invoke(subscriber, event);
+        } catch (Throwable e) {
+            logger.log(Level.SEVERE, "订阅方法执行异常：" + subscription.subscriberMethod.getMethodName(), e);
+        }
+    }
+
+    /**
+     * 按事件类型的防抖、节流，到期后发布
+     */
+    private final class TypeRateLimiter extends RateLimiter {
+
+        TypeRateLimiter(boolean debounce, long periodMillis) {
+            super(timerScheduler, debounce, periodMillis);
+        }
+
+        @Override
+        void deliver(Object event) {
+            postNow(event);
+        }
+    }
+
+    /**
+     * 订阅方法上的防抖、节流，到期后按线程模式投递给该订阅方法
+     */
+    private final class SubscriptionRateLimiter extends RateLimiter {
+
+        private final Subscription subscription;
+
+        SubscriptionRateLimiter(Subscription subscription, boolean debounce, long periodMillis) {
+            super(timerScheduler, debounce, periodMillis);
+            this.subscription = subscription;
+        }
+
+        @Override
+        void deliver(Object event) {
+            deliverToSubscription(subscription, event, null);
+        }
+    }
+
+    /**
+     * 执行订阅方法并把返回值交给结果收集器，异常不记录日志，由回调交给调用方
+     */
+    private void invokeForResult(Subscription subscription, Object event, ResultCollector collector, int resultIndex) {
+        //排队期间订阅者可能已经解注册或被回收，视为没有结果
+        Object subscriber = subscription.getSubscriber();
+        if (!subscription.active || subscriber == null) {
+            collector.complete(resultIndex, null, false);
+            return;
+        }
+        Object result;
+        try {
+            result = subscription.subscriberMethod.getInvoker().invoke(subscriber, event);
+        } catch (Throwable e) {
+            collector.fail(e);
+            return;
+        }
+        collector.complete(resultIndex, result, subscription.subscriberMethod.hasReturnValue());
+    }
+
+    /**
+     * 发布线程状态
+     */
+    private static final class PostingThreadState {
+
+        private static final int INITIAL_QUEUE_CAPACITY = 16;
+
+        /**
+         * 发布队列，循环数组实现，入队、出队都不创建对象
+         */
+        private Object[] queue = new Object[INITIAL_QUEUE_CAPACITY];
+        private int head;
+        private int size;
+        /**
+         * 是否正在发布
+         */
+        boolean isPosting;
+        /**
+         * 当前正在分发的事件
+         */
+        Object event;
+        /**
+         * 当前正在执行的订阅者
+         */
+        Subscription subscription;
+        /**
+         * 事件是否已被取消
+         */
+        boolean canceled;
+        /**
+         * 是否正在批量发布，是则需要切换线程的投递先暂存到下面的批次里，分发完再整体入队
+         */
+        boolean batching;
+        final PendingPostBatch mainThreadBatch = new PendingPostBatch();
+        final PendingPostBatch backgroundBatch = new PendingPostBatch();
+        final PendingPostBatch asyncBatch = new PendingPostBatch();
+        final PendingPostBatch orderedAsyncBatch = new PendingPostBatch();
+        /**
+         * 上一个分发的事件类型及其id，连续发布同一类型的事件时不必重新查找
+         */
+        Class<?> lastEventClass;
+        int lastEventTypeId;
+        int[] lastEventTypeIds;
+
+        void enqueue(Object event) {
+            if (size == queue.length) {
+                //扩容，按出队顺序复制到新数组开头
+                Object[] newQueue = new Object[queue.length << 1];
+                for (int i = 0; i < size; i++) {
+                    newQueue[i] = queue[(head + i) & (queue.length - 1)];
+                }
+                queue = newQueue;
+                head = 0;
+            }
+            queue[(head + size) & (queue.length - 1)] = event;
+            size++;
+        }
+
+        Object poll() {
+            if (size == 0) {
+                return null;
+            }
+            Object event = queue[head];
+            queue[head] = null;
+            head = (head + 1) & (queue.length - 1);
+            size--;
+            return event;
+        }
+
+        /**
+         * 一轮发布结束，清空队列和批次中残留的事件（订阅方法抛出未捕获的错误时才会有），不保留对事件的引用
+         */
+        void reset() {
+            while (size > 0) {
+                poll();
+            }
+            head = 0;
+            mainThreadBatch.clear();
+            backgroundBatch.clear();
+            asyncBatch.clear();
+            orderedAsyncBatch.clear();
+            lastEventClass = null;
+            lastEventTypeIds = null;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.sxh.eventbus;
+
+import com.sxh.eventbus_annotation.ISubscriberInfoIndex;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * EventBus构建器，用于自定义EventBus的配置，每次build()都会得到一个独立的EventBus实例
+ * 各实例拥有自己的索引、线程池、主线程投递器和订阅关系，互不共享锁，可以按业务模块拆分到不同的EventBus上
+ * <p>
+ * EventBus eventBus = EventBus.builder().addIndex(new EventBusIndex()).build();
+ */
+public class EventBusBuilder {
+
+    /**
+     * 主线程投递器每条消息的默认时间预算，单位毫秒
+     */
+    private static final int DEFAULT_MAX_MILLIS_INSIDE_HANDLE_MESSAGE = 10;
+    /**
+     * 并行发布时每段最多的订阅方法数，默认值
+     */
+    private static final int DEFAULT_PARALLEL_THRESHOLD = 4;
+
+    List<ISubscriberInfoIndex> subscriberInfoIndexes;
+    ExecutorService executorService;
+    ExecutorService asyncExecutorService;
+    int maxAsyncConcurrency = Integer.MAX_VALUE;
+    int orderedAsyncStripes = Runtime.getRuntime().availableProcessors();
+    ForkJoinPool forkJoinPool;
+    int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+    Map<Class<?>, Long> debounceMillisByType;
+    Map<Class<?>, Long> throttleMillisByType;
+    boolean eventInheritance;
+    int maxMillisInsideHandleMessage = DEFAULT_MAX_MILLIS_INSIDE_HANDLE_MESSAGE;
+    MainThreadSupport mainThreadSupport;
+    Logger logger;
+
+    EventBusBuilder() {
+    }
+
+    /**
+     * 添加APT生成索引类的实例对象，避免去反射，多模块时每个模块的索引都需要添加
+     */
+    public EventBusBuilder addIndex(ISubscriberInfoIndex index) {
+        if (subscriberInfoIndexes == null) {
+            subscriberInfoIndexes = new ArrayList<>();
+        }
+        subscriberInfoIndexes.add(index);
+        return this;
+    }
+
+    /**
+     * 设置BACKGROUND、ASYNC线程模式使用的线程池，默认每个EventBus实例各自创建一个缓存线程池
+     * 低核数设备上可以传入有界线程池，控制线程数量和上下文切换开销
+     */
+    public EventBusBuilder executorService(ExecutorService executorService) {
+        this.executorService = executorService;
+        return this;
+    }
+
+    /**
+     * 单独设置ASYNC、ORDERED_ASYNC线程模式使用的线程池，默认与BACKGROUND共用executorService
+     * JVM上订阅方法以阻塞I/O为主时，可以传入虚拟线程池，每次投递一个虚拟线程
+     */
+    public EventBusBuilder asyncExecutorService(ExecutorService asyncExecutorService) {
+        this.asyncExecutorService = asyncExecutorService;
+        return this;
+    }
+
+    /**
+     * 设置ASYNC线程模式同时执行的投递数上限，超出的投递排队等待，默认不限制
+     * 使用每次投递一个线程的线程池（如虚拟线程池）时，用它控制同时访问磁盘、数据库的并发数
+     */
+    public EventBusBuilder maxAsyncConcurrency(int maxAsyncConcurrency) {
+        if (maxAsyncConcurrency <= 0) {
+            throw new IllegalArgumentException("ASYNC并发数上限必须大于0：" + maxAsyncConcurrency);
+        }
+        this.maxAsyncConcurrency = maxAsyncConcurrency;
+        return this;
+    }
+
+    /**
+     * 设置ORDERED_ASYNC线程模式的条带数，即最多同时执行的订阅者数，默认为CPU核数
+     * 订阅者按对象哈希分到条带上，条带越多，不同订阅者互相排队的机会越少
+     */
+    public EventBusBuilder orderedAsyncStripes(int orderedAsyncStripes) {
+        if (orderedAsyncStripes <= 0) {
+            throw new IllegalArgumentException("ORDERED_ASYNC条带数必须大于0：" + orderedAsyncStripes);
+        }
+        this.orderedAsyncStripes = orderedAsyncStripes;
+        return this;
+    }
+
+    /**
+     * 设置postParallel使用的ForkJoinPool，默认使用ForkJoinPool.commonPool()
+     */
+    public EventBusBuilder forkJoinPool(ForkJoinPool forkJoinPool) {
+        this.forkJoinPool = forkJoinPool;
+        return this;
+    }
+
+    /**
+     * 设置postParallel的拆分阈值：订阅方法数不超过它时直接在发布线程上依次执行，超过时拆分到每段不超过它，默认4
+     * 订阅方法越轻，阈值应该越大，避免拆分开销超过并行收益
+     */
+    public EventBusBuilder parallelThreshold(int parallelThreshold) {
+        if (parallelThreshold <= 0) {
+            throw new IllegalArgumentException("并行发布的拆分阈值必须大于0：" + parallelThreshold);
+        }
+        this.parallelThreshold = parallelThreshold;
+        return this;
+    }
+
+    /**
+     * 按事件类型防抖：post该类型的事件后，停止发布millis毫秒才真正发布最后一个，期间的其他事件丢弃
+     * 只匹配事件自身的类型，对postDelayed到期后的发布同样生效
+     */
+    public EventBusBuilder debounce(Class<?> eventType, long millis) {
+        if (millis <= 0) {
+            throw new IllegalArgumentException("防抖时间必须大于0：" + millis);
+        }
+        if (throttleMillisByType != null && throttleMillisByType.containsKey(eventType)) {
+            throw new IllegalArgumentException("事件类型不能同时设置防抖和节流：" + eventType.getName());
+        }
+        if (debounceMillisByType == null) {
+            debounceMillisByType = new HashMap<>();
+        }
+        debounceMillisByType.put(eventType, millis);
+        return this;
+    }
+
+    /**
+     * 按事件类型节流：每millis毫秒最多发布一次，周期内第一个事件立即发布，其余的只保留最新的一个，周期结束时发布
+     * 只匹配事件自身的类型，对postDelayed到期后的发布同样生效
+     */
+    public EventBusBuilder throttle(Class<?> eventType, long millis) {
+        if (millis <= 0) {
+            throw new IllegalArgumentException("节流周期必须大于0：" + millis);
+        }
+        if (debounceMillisByType != null && debounceMillisByType.containsKey(eventType)) {
+            throw new IllegalArgumentException("事件类型不能同时设置防抖和节流：" + eventType.getName());
+        }
+        if (throttleMillisByType == null) {
+            throttleMillisByType = new HashMap<>();
+        }
+        throttleMillisByType.put(eventType, millis);
+        return this;
+    }
+
+    /**
+     * 是否开启事件继承，开启后发布LoginEvent时，订阅了LoginEvent父类或接口的方法也会执行，默认关闭
+     */
+    public EventBusBuilder eventInheritance(boolean eventInheritance) {
+        this.eventInheritance = eventInheritance;
+        return this;
+    }
+
+    /**
+     * 设置主线程投递器每条消息的时间预算，单位毫秒，超过后让出主线程，默认10毫秒
+     */
+    public EventBusBuilder maxMillisInsideHandleMessage(int maxMillisInsideHandleMessage) {
+        if (maxMillisInsideHandleMessage <= 0) {
+            throw new IllegalArgumentException("主线程时间预算必须大于0：" + maxMillisInsideHandleMessage);
+        }
+        this.maxMillisInsideHandleMessage = maxMillisInsideHandleMessage;
+        return this;
+    }
+
+    /**
+     * 设置主线程支持，默认在Android上使用Looper主线程，其他环境没有主线程
+     */
+    public EventBusBuilder mainThreadSupport(MainThreadSupport mainThreadSupport) {
+        this.mainThreadSupport = mainThreadSupport;
+        return this;
+    }
+
+    /**
+     * 设置日志输出，默认在Android上输出到Logcat，其他环境输出到java.util.logging
+     */
+    public EventBusBuilder logger(Logger logger) {
+        this.logger = logger;
+        return this;
+    }
+
+    MainThreadSupport getMainThreadSupport() {
+        return mainThreadSupport != null ? mainThreadSupport : PlatformComponents.defaultMainThreadSupport();
+    }
+
+    Logger getLogger() {
+        return logger != null ? logger : PlatformComponents.defaultLogger();
+    }
+
+    /**
+     * 用当前配置创建默认实例，之后EventBus.getDefault()返回的就是它
+     * 必须在第一次调用EventBus.getDefault()之前调用，通常放在Application.onCreate()中
+     */
+    public EventBus installDefaultEventBus() {
+        synchronized (EventBus.class) {
+            if (EventBus.sInstance != null) {
+                throw new IllegalStateException("默认实例已经创建，请在第一次调用EventBus.getDefault()之前调用installDefaultEventBus()");
+            }
+            EventBus.sInstance = build();
+            return EventBus.sInstance;
+        }
+    }
+
+    /**
+     * 根据当前配置创建一个新的EventBus实例
+     */
+    public EventBus build() {
+        return new EventBus(this);
+    }
+}
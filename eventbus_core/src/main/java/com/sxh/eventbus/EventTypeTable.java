@@ -0,0 +1,230 @@
+package com.sxh.eventbus;
+
+import com.sxh.eventbus_annotation.ISubscriberInfoIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 事件类型id表：为每个事件类型分配一个从0开始的连续id，EventBus内部按id用数组存取订阅者、粘性事件
+ * <p>
+ * 发布时先在ClassIds中按Class对象标识做一次开放寻址探测拿到id（装载因子不超过0.5，通常一两次比较），
+ * 再按id读取数组，不再用Class作为key查HashMap；同一线程连续发布同一类型的事件时，
+ * 由发布线程状态复用上一次的id，连探测也省掉。没有用ClassValue缓存id，Android在API 34以下没有这个类
+ * <p>
+ * id来源：EventBus创建时合并所有APT索引里的事件类型id表（按类名去重），
+ * 索引中不存在的事件类型在第一次需要时再分配
+ */
+final class EventTypeTable {
+
+    /**
+     * APT索引中的事件类型：类名 -> 全局id，创建后只读
+     */
+    private final NameTable names;
+    /**
+     * 每个索引的 本地事件类型id -> 全局id
+     */
+    private final int[][] globalIdsByIndex;
+    /**
+     * 事件类型Class -> 全局id，写时复制，发布线程读取无需加锁
+     */
+    private volatile ClassIds classIds = new ClassIds(16);
+    /**
+     * 开启事件继承时使用，下标：事件类型id，元素：事件类型自身及其所有父类、接口的id，
+     * 第一次发布时计算一次，写时复制，之后发布线程直接按id读取
+     */
+    private volatile int[][] allEventTypeIds = new int[0][];
+    /**
+     * 下一个可分配的id，只在当前对象锁内读写
+     */
+    private int nextId;
+
+    EventTypeTable(List<ISubscriberInfoIndex> indexes) {
+        String[][] namesByIndex = new String[indexes.size()][];
+        int size = 0;
+        for (int i = 0; i < indexes.size(); i++) {
+            namesByIndex[i] = indexes.get(i).getEventTypeNames();
+            size += namesByIndex[i].length;
+        }
+        names = new NameTable(size);
+        globalIdsByIndex = new int[indexes.size()][];
+        for (int i = 0; i < namesByIndex.length; i++) {
+            globalIdsByIndex[i] = new int[namesByIndex[i].length];
+            for (int localId = 0; localId < namesByIndex[i].length; localId++) {
+                globalIdsByIndex[i][localId] = putName(namesByIndex[i][localId]);
+            }
+        }
+    }
+
+    /**
+     * 登记索引中的事件类型名，多个模块订阅了同一事件类型时共用一个id
+     */
+    private int putName(String name) {
+        int id = names.putIfAbsent(name, nextId);
+        return id >= 0 ? id : nextId++;
+    }
+
+    /**
+     * 把第indexPosition个索引中的本地事件类型id转换成全局id
+     */
+    int toGlobalId(int indexPosition, int localId) {
+        return globalIdsByIndex[indexPosition][localId];
+    }
+
+    /**
+     * 查找事件类型的id，发布时使用，从未被订阅过的事件类型返回-1，不会为它分配id
+     */
+    int find(Class<?> eventType) {
+        int id = classIds.get(eventType);
+        if (id >= 0) {
+            return id;
+        }
+        //第一次遇到这个Class，按类名查APT索引，找到后缓存起来，之后只需一次对象标识探测
+        id = names.get(eventType.getName());
+        if (id >= 0) {
+            synchronized (this) {
+                classIds = classIds.with(eventType, id);
+            }
+        }
+        return id;
+    }
+
+    /**
+     * 获取事件类型的id，不存在时分配一个新的id
+     */
+    int idOf(Class<?> eventType) {
+        int id = find(eventType);
+        if (id >= 0) {
+            return id;
+        }
+        synchronized (this) {
+            id = classIds.get(eventType);
+            if (id < 0) {
+                id = nextId++;
+                classIds = classIds.with(eventType, id);
+            }
+            return id;
+        }
+    }
+
+    /**
+     * 获取事件类型自身及其所有父类、接口的id，按 自身、接口、父类 的顺序排列
+     * <p>
+     * 父类、接口即使还没有订阅者也会分配id，这样之后注册的订阅者同样能收到，缓存不会失效
+     */
+    int[] allEventTypeIds(Class<?> eventType) {
+        int eventTypeId = idOf(eventType);
+        int[][] cache = allEventTypeIds;
+        if (eventTypeId < cache.length && cache[eventTypeId] != null) {
+            return cache[eventTypeId];
+        }
+        List<Class<?>> types = new ArrayList<>();
+        Class<?> clazz = eventType;
+        while (clazz != null) {
+            types.add(clazz);
+            addInterfaces(types, clazz.getInterfaces());
+            clazz = clazz.getSuperclass();
+        }
+        int[] ids = new int[types.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = idOf(types.get(i));
+        }
+        synchronized (this) {
+            cache = allEventTypeIds;
+            if (eventTypeId >= cache.length) {
+                cache = Arrays.copyOf(cache, Math.max(eventTypeId + 1, nextId));
+            } else {
+                cache = cache.clone();
+            }
+            cache[eventTypeId] = ids;
+            allEventTypeIds = cache;
+        }
+        return ids;
+    }
+
+    /**
+     * 递归添加接口及父接口，去重
+     */
+    private static void addInterfaces(List<Class<?>> types, Class<?>[] interfaces) {
+        for (Class<?> interfaceClass : interfaces) {
+            if (!types.contains(interfaceClass)) {
+                types.add(interfaceClass);
+                addInterfaces(types, interfaceClass.getInterfaces());
+            }
+        }
+    }
+
+    /**
+     * 已分配的id个数，即按id存取的数组至少需要的长度
+     */
+    synchronized int size() {
+        return nextId;
+    }
+
+    /**
+     * 以Class对象标识为key的不可变开放寻址表，新增时复制出新表
+     */
+    private static final class ClassIds {
+
+        private final Class<?>[] keys;
+        private final int[] ids;
+        private final int size;
+
+        ClassIds(int capacity) {
+            keys = new Class<?>[capacity];
+            ids = new int[capacity];
+            size = 0;
+        }
+
+        private ClassIds(Class<?>[] keys, int[] ids, int size) {
+            this.keys = keys;
+            this.ids = ids;
+            this.size = size;
+        }
+
+        int get(Class<?> eventType) {
+            int mask = keys.length - 1;
+            int i = NameTable.hash(eventType) & mask;
+            while (true) {
+                Class<?> key = keys[i];
+                if (key == eventType) {
+                    return ids[i];
+                }
+                if (key == null) {
+                    return -1;
+                }
+                i = (i + 1) & mask;
+            }
+        }
+
+        ClassIds with(Class<?> eventType, int id) {
+            if (get(eventType) >= 0) {
+                return this;
+            }
+            //保持装载因子不超过0.5
+            int capacity = keys.length;
+            while (capacity < (size + 1) * 2) {
+                capacity <<= 1;
+            }
+            ClassIds copy = new ClassIds(new Class<?>[capacity], new int[capacity], size + 1);
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != null) {
+                    copy.insert(keys[i], ids[i]);
+                }
+            }
+            copy.insert(eventType, id);
+            return copy;
+        }
+
+        private void insert(Class<?> eventType, int id) {
+            int mask = keys.length - 1;
+            int i = NameTable.hash(eventType) & mask;
+            while (keys[i] != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = eventType;
+            ids[i] = id;
+        }
+    }
+}
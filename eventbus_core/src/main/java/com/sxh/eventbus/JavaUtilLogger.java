@@ -0,0 +1,29 @@
+package com.sxh.eventbus;
+
+import java.util.logging.Level;
+
+/**
+ * 输出到java.util.logging，非Android环境下的默认实现，服务端可以通过它接入已有的日志框架
+ */
+public class JavaUtilLogger implements Logger {
+
+    private final java.util.logging.Logger logger;
+
+    public JavaUtilLogger() {
+        this(java.util.logging.Logger.getLogger("sxh"));
+    }
+
+    public JavaUtilLogger(java.util.logging.Logger logger) {
+        this.logger = logger;
+    }
+
+    @Override
+    public void log(Level level, String msg) {
+        logger.log(level, msg);
+    }
+
+    @Override
+    public void log(Level level, String msg, Throwable th) {
+        logger.log(level, msg, th);
+    }
+}
@@ -0,0 +1,30 @@
+package com.sxh.eventbus;
+
+import java.util.logging.Level;
+
+/**
+ * 日志输出，EventBus核心代码不直接依赖android.util.Log，运行在Android上时默认输出到Logcat，否则输出到java.util.logging
+ */
+public interface Logger {
+
+    void log(Level level, String msg);
+
+    void log(Level level, String msg, Throwable th);
+
+    /**
+     * 输出到标准输出，如本地调试时不想配置java.util.logging，可以通过EventBusBuilder.logger()设置
+     */
+    class SystemOutLogger implements Logger {
+
+        @Override
+        public void log(Level level, String msg) {
+            System.out.println("[" + level + "] " + msg);
+        }
+
+        @Override
+        public void log(Level level, String msg, Throwable th) {
+            System.out.println("[" + level + "] " + msg);
+            th.printStackTrace(System.out);
+        }
+    }
+}
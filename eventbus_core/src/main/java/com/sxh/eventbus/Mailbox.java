@@ -0,0 +1,185 @@
+package com.sxh.eventbus;
+
+import com.sxh.eventbus_annotation.BackpressurePolicy;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ASYNC订阅方法的有界信箱：投递先放入信箱，信箱里的事件由同一时刻唯一的一个任务依次执行，
+ * 满了之后按BackpressurePolicy处理，避免慢订阅者遇上快发布者时任务无限堆积
+ * <p>
+ * 使用ReentrantLock，BLOCK策略下等待的虚拟线程可以让出载体线程
+ * <p>
+ * 订阅方法在执行中又向自己的信箱发布事件时，只有它自己能腾出空位，BLOCK策略下等待会永远等不到，
+ * 所以执行任务所在线程的投递在信箱满时直接丢弃，计入丢弃数
+ */
+final class Mailbox {
+
+    private final Object[] events;
+    private final BackpressurePolicy backpressure;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private int head;
+    private int size;
+    /**
+     * 是否已经提交了执行任务，还没执行完，只在锁内读写
+     */
+    private boolean scheduled;
+    /**
+     * 正在执行信箱中事件的线程，没有执行任务时为null，只在锁内读写
+     */
+    private Thread drainingThread;
+    /**
+     * 解注册后关闭，不再接收投递
+     */
+    private boolean closed;
+    /**
+     * 因信箱已满被丢弃（或被合并替换）的事件数
+     */
+    private long droppedCount;
+    /**
+     * 因信箱已满而阻塞发布线程的次数
+     */
+    private long blockedCount;
+
+    Mailbox(int capacity, BackpressurePolicy backpressure) {
+        events = new Object[capacity];
+        this.backpressure = backpressure;
+    }
+
+    /**
+     * 放入事件
+     *
+     * @return 是否需要提交执行任务
+     */
+    boolean offer(Object event) {
+        lock.lock();
+        try {
+            if (closed) {
+                return false;
+            }
+            if (size == events.length) {
+                switch (backpressure) {
+                    case BLOCK:
+                        if (drainingThread == Thread.currentThread()) {
+                            //订阅方法向自己的信箱发布，等待会死锁，丢弃
+                            droppedCount++;
+                            return false;
+                        }
+                        blockedCount++;
+                        try {
+                            while (size == events.length && !closed) {
+                                notFull.await();
+                            }
+                        } catch (InterruptedException e) {
+                            //发布线程被中断，放弃这次投递并保留中断状态
+                            Thread.currentThread().interrupt();
+                            droppedCount++;
+                            return false;
+                        }
+                        if (closed) {
+                            return false;
+                        }
+                        break;
+                    case DROP_NEWEST:
+                        droppedCount++;
+                        return false;
+                    case DROP_OLDEST:
+                        events[head] = null;
+                        head = (head + 1) % events.length;
+                        size--;
+                        droppedCount++;
+                        break;
+                    case CONFLATE:
+                        events[(head + size - 1) % events.length] = event;
+                        droppedCount++;
+                        return false;
+                    default:
+                        throw new IllegalStateException("信箱策略异常：" + backpressure);
+                }
+            }
+            events[(head + size) % events.length] = event;
+            size++;
+            if (scheduled) {
+                return false;
+            }
+            scheduled = true;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 取出最早的事件，信箱为空时结束本次执行任务并返回null
+     */
+    Object poll() {
+        lock.lock();
+        try {
+            if (size == 0) {
+                scheduled = false;
+                drainingThread = null;
+                return null;
+            }
+            drainingThread = Thread.currentThread();
+            Object event = events[head];
+            events[head] = null;
+            head = (head + 1) % events.length;
+            size--;
+            notFull.signal();
+            return event;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 解注册时关闭，丢弃未执行的事件，唤醒阻塞中的发布线程
+     */
+    void close() {
+        lock.lock();
+        try {
+            closed = true;
+            while (size > 0) {
+                events[head] = null;
+                head = (head + 1) % events.length;
+                size--;
+            }
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int capacity() {
+        return events.length;
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long droppedCount() {
+        lock.lock();
+        try {
+            return droppedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long blockedCount() {
+        lock.lock();
+        try {
+            return blockedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
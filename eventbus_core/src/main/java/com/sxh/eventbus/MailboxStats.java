@@ -0,0 +1,79 @@
+package com.sxh.eventbus;
+
+import com.sxh.eventbus_annotation.BackpressurePolicy;
+
+/**
+ * 某个订阅方法信箱的运行状态快照，用于在线上调整信箱容量和策略
+ */
+public final class MailboxStats {
+
+    private final Object subscriber;
+    private final String methodName;
+    private final Class<?> eventType;
+    private final int capacity;
+    private final BackpressurePolicy backpressure;
+    private final int depth;
+    private final long droppedCount;
+    private final long blockedCount;
+
+    MailboxStats(Subscription subscription, Mailbox mailbox) {
+        subscriber = subscription.getSubscriber();
+        methodName = subscription.subscriberMethod.getMethodName();
+        eventType = subscription.subscriberMethod.getEventTypeClass();
+        capacity = mailbox.capacity();
+        backpressure = subscription.subscriberMethod.getBackpressure();
+        depth = mailbox.size();
+        droppedCount = mailbox.droppedCount();
+        blockedCount = mailbox.blockedCount();
+    }
+
+    /**
+     * 订阅者，弱引用注册的订阅者已被回收时为null
+     */
+    public Object getSubscriber() {
+        return subscriber;
+    }
+
+    public String getMethodName() {
+        return methodName;
+    }
+
+    public Class<?> getEventType() {
+        return eventType;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public BackpressurePolicy getBackpressure() {
+        return backpressure;
+    }
+
+    /**
+     * 信箱中等待执行的事件数
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * 因信箱已满被丢弃（或被合并替换）的事件数
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * 因信箱已满而阻塞发布线程的次数
+     */
+    public long getBlockedCount() {
+        return blockedCount;
+    }
+
+    @Override
+    public String toString() {
+        return (subscriber != null ? subscriber.getClass().getName() : "已回收的订阅者") + "." + methodName + "(" + eventType.getName() + ")"
+                + " depth=" + depth + "/" + capacity + " dropped=" + droppedCount + " blocked=" + blockedCount;
+    }
+}
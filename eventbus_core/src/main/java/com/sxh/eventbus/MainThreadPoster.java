@@ -0,0 +1,92 @@
+package com.sxh.eventbus;
+
+/**
+ * 主线程投递器：子线程发布的事件统一放入一个队列，只向主线程提交一个任务，
+ * 该任务在时间预算内尽可能多地执行队列中的投递，超时则让出主线程并重新提交，避免卡顿
+ * <p>
+ * 切换到主线程的方式由MainThreadSupport.execute()提供，Android上是Handler消息，JVM上是事件循环任务
+ */
+final class MainThreadPoster implements Runnable, Poster {
+
+    private final PendingPostQueue queue;
+    /**
+     * 每个任务最多占用主线程的时间，单位毫秒
+     */
+    private final int maxMillisInsideHandleMessage;
+    private final EventBus eventBus;
+    private final MainThreadSupport mainThreadSupport;
+    /**
+     * 是否已经向主线程提交了任务，并且还没执行完，只在当前对象锁内读写
+     */
+    private boolean active;
+
+    MainThreadPoster(EventBus eventBus, MainThreadSupport mainThreadSupport, int maxMillisInsideHandleMessage) {
+        this.eventBus = eventBus;
+        this.mainThreadSupport = mainThreadSupport;
+        this.maxMillisInsideHandleMessage = maxMillisInsideHandleMessage;
+        queue = new PendingPostQueue();
+    }
+
+    @Override
+    public void enqueue(Subscription subscription, Object event) {
+        PendingPost pendingPost = eventBus.pendingPostPool.obtain(subscription, event);
+        synchronized (this) {
+            queue.enqueue(pendingPost);
+            //已有任务在排队或正在执行，它会顺带处理这次投递，无需再提交
+            if (!active) {
+                schedule();
+            }
+        }
+    }
+
+    @Override
+    public void enqueueAll(PendingPostBatch batch) {
+        synchronized (this) {
+            queue.enqueueAll(batch);
+            //整批投递只需要向主线程提交一个任务
+            if (!active) {
+                schedule();
+            }
+        }
+    }
+
+    /**
+     * 在当前对象锁内调用，提交失败时恢复标记，之后的投递可以重新提交
+     */
+    private void schedule() {
+        active = true;
+        try {
+            mainThreadSupport.execute(this);
+        } catch (RuntimeException e) {
+            active = false;
+            throw e;
+        }
+    }
+
+    @Override
+    public void run() {
+        long started = System.nanoTime();
+        while (true) {
+            PendingPost pendingPost = queue.poll();
+            if (pendingPost == null) {
+                synchronized (this) {
+                    //加锁再检查一次，避免与enqueue竞争导致漏掉投递
+                    pendingPost = queue.poll();
+                    if (pendingPost == null) {
+                        active = false;
+                        return;
+                    }
+                }
+            }
+            eventBus.invokeSubscriber(pendingPost);
+            long timeInMethod = (System.nanoTime() - started) / 1000000L;
+            if (timeInMethod >= maxMillisInsideHandleMessage) {
+                //时间预算用完，重新提交，让出主线程去绘制；提交失败时恢复标记，之后的投递可以重新提交
+                synchronized (this) {
+                    schedule();
+                }
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.sxh.eventbus;
+
+/**
+ * 主线程支持：EventBus核心代码不直接依赖Android的Looper、Handler，
+ * 判断当前线程、切换到主线程都交给它，运行在Android上时默认使用Looper主线程实现
+ * <p>
+ * 只需提供 判断主线程 和 在主线程执行任务 两个能力，投递队列、时间预算由EventBus内部的主线程投递器负责，
+ * 其他平台（如桌面UI线程）实现这两个方法即可接入
+ * <p>
+ * 没有主线程的环境（如JVM上跑基准测试）可以不设置，此时所有线程都被视为主线程，MAIN线程模式直接在发布线程执行
+ */
+public interface MainThreadSupport {
+
+    /**
+     * 当前是否在主线程
+     */
+    boolean isMainThread();
+
+    /**
+     * 把任务交给主线程执行，可以在任意线程调用；无法提交时抛出RuntimeException
+     */
+    void execute(Runnable runnable);
+}
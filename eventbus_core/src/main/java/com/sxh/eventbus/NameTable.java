@@ -0,0 +1,66 @@
+package com.sxh.eventbus;
+
+/**
+ * 以类名字符串为key、int为value的开放寻址表，EventBus创建时合并APT索引用，
+ * 容量取不小于两倍元素个数的2的幂，保证探测链足够短
+ * <p>
+ * 只在创建EventBus时写入，之后只读，多线程读取无需加锁
+ */
+final class NameTable {
+
+    private final String[] keys;
+    private final int[] values;
+    private final int mask;
+
+    /**
+     * @param size 最多存放的元素个数
+     */
+    NameTable(int size) {
+        int capacity = 2;
+        while (capacity < size * 2) {
+            capacity <<= 1;
+        }
+        keys = new String[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * 不存在时存入，返回-1；已存在时不覆盖，返回已有的value
+     */
+    int putIfAbsent(String key, int value) {
+        int i = hash(key) & mask;
+        while (keys[i] != null) {
+            if (keys[i].equals(key)) {
+                return values[i];
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        return -1;
+    }
+
+    /**
+     * 查找key对应的value，没有则返回-1
+     */
+    int get(String key) {
+        int i = hash(key) & mask;
+        while (true) {
+            String k = keys[i];
+            if (k == null) {
+                return -1;
+            }
+            if (k.equals(key)) {
+                return values[i];
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    static int hash(Object key) {
+        int h = key.hashCode();
+        //高位参与运算，减少只取低位带来的冲突
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,42 @@
+package com.sxh.eventbus;
+
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 并行发布任务：把订阅方法列表对半拆分，交给ForkJoinPool的工作线程窃取执行，
+ * 拆到不超过阈值的一段后在当前工作线程上依次执行
+ */
+final class ParallelPostTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final EventBus eventBus;
+    private final List<Subscription> subscriptions;
+    private final int from;
+    private final int to;
+    private final Object event;
+    private final int threshold;
+
+    ParallelPostTask(EventBus eventBus, List<Subscription> subscriptions, int from, int to, Object event, int threshold) {
+        this.eventBus = eventBus;
+        this.subscriptions = subscriptions;
+        this.from = from;
+        this.to = to;
+        this.event = event;
+        this.threshold = threshold;
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= threshold) {
+            for (int i = from; i < to; i++) {
+                eventBus.invokeSubscriber(subscriptions.get(i), event);
+            }
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        invokeAll(new ParallelPostTask(eventBus, subscriptions, from, middle, event, threshold),
+                new ParallelPostTask(eventBus, subscriptions, middle, to, event, threshold));
+    }
+}
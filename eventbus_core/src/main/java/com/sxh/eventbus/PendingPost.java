@@ -0,0 +1,93 @@
+package com.sxh.eventbus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 等待执行的事件投递，即“哪个订阅者要处理哪个事件”，在队列中以单链表形式串起来
+ * <p>
+ * 对象从所属EventBus的复用池中取出，跨线程投递稳定运行后不再创建新对象，减少主线程的GC
+ */
+final class PendingPost {
+
+    /**
+     * 事件对象
+     */
+    Object event;
+    /**
+     * 订阅者封装对象
+     */
+    Subscription subscription;
+    /**
+     * postForResult的结果收集器，普通投递为null
+     */
+    ResultCollector collector;
+    /**
+     * 在结果收集器中的位置
+     */
+    int resultIndex;
+    /**
+     * 队列中的下一个
+     */
+    PendingPost next;
+
+    private PendingPost(Object event, Subscription subscription) {
+        this.event = event;
+        this.subscription = subscription;
+    }
+
+    /**
+     * 复用池，每个EventBus一个，多个EventBus之间不争用同一把锁
+     * <p>
+     * 使用ReentrantLock而不是synchronized，ASYNC投递运行在虚拟线程上时，等锁的虚拟线程可以让出载体线程
+     */
+    static final class Pool {
+
+        /**
+         * 复用池的最大容量，超出后直接丢弃交给GC，避免突发大量事件后一直占用内存
+         */
+        private static final int MAX_POOL_SIZE = 10000;
+
+        private final List<PendingPost> pendingPosts = new ArrayList<>();
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * 从复用池中取出一个对象，池为空时才创建
+         */
+        PendingPost obtain(Subscription subscription, Object event) {
+            lock.lock();
+            try {
+                int size = pendingPosts.size();
+                if (size > 0) {
+                    PendingPost pendingPost = pendingPosts.remove(size - 1);
+                    pendingPost.event = event;
+                    pendingPost.subscription = subscription;
+                    pendingPost.next = null;
+                    return pendingPost;
+                }
+            } finally {
+                lock.unlock();
+            }
+            return new PendingPost(event, subscription);
+        }
+
+        /**
+         * 回收到复用池，回收前清空引用，避免池中对象持有事件和订阅者导致内存泄漏
+         */
+        void release(PendingPost pendingPost) {
+            pendingPost.event = null;
+            pendingPost.subscription = null;
+            pendingPost.collector = null;
+            pendingPost.next = null;
+            lock.lock();
+            try {
+                if (pendingPosts.size() < MAX_POOL_SIZE) {
+                    pendingPosts.add(pendingPost);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.sxh.eventbus;
+
+/**
+ * 批量发布时暂存的一组跨线程投递，按发布顺序串成单链表，发布结束后整体交给投递器，只入队一次
+ * <p>
+ * 只在发布线程内使用，不需要加锁
+ */
+final class PendingPostBatch {
+
+    PendingPost head;
+    PendingPost tail;
+    int size;
+
+    void add(PendingPost pendingPost) {
+        if (tail != null) {
+            tail.next = pendingPost;
+        } else {
+            head = pendingPost;
+        }
+        tail = pendingPost;
+        size++;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 链表已交给投递器，清空引用以便复用
+     */
+    void clear() {
+        head = tail = null;
+        size = 0;
+    }
+}
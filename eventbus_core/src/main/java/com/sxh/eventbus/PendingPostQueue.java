@@ -0,0 +1,66 @@
+package com.sxh.eventbus;
+
+/**
+ * 等待执行的事件投递队列，单链表实现，入队、出队都是O(1)
+ */
+final class PendingPostQueue {
+
+    private PendingPost head;
+    private PendingPost tail;
+
+    synchronized void enqueue(PendingPost pendingPost) {
+        if (pendingPost == null) {
+            throw new NullPointerException("入队的PendingPost不能为空");
+        }
+        if (tail != null) {
+            tail.next = pendingPost;
+            tail = pendingPost;
+        } else if (head == null) {
+            head = tail = pendingPost;
+        } else {
+            throw new IllegalStateException("队列状态异常：head不为空但tail为空");
+        }
+        //唤醒等待中的消费线程
+        notifyAll();
+    }
+
+    /**
+     * 把一组事件投递整体接到队尾，只唤醒一次
+     */
+    synchronized void enqueueAll(PendingPostBatch batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (tail != null) {
+            tail.next = batch.head;
+        } else {
+            head = batch.head;
+        }
+        tail = batch.tail;
+        notifyAll();
+    }
+
+    synchronized PendingPost poll() {
+        PendingPost pendingPost = head;
+        if (head != null) {
+            head = head.next;
+            if (head == null) {
+                tail = null;
+            }
+            pendingPost.next = null;
+        }
+        return pendingPost;
+    }
+
+    /**
+     * 出队，队列为空时最多等待指定时间
+     *
+     * @param maxMillisToWait 最长等待时间，单位毫秒
+     */
+    synchronized PendingPost poll(int maxMillisToWait) throws InterruptedException {
+        if (head == null) {
+            wait(maxMillisToWait);
+        }
+        return poll();
+    }
+}
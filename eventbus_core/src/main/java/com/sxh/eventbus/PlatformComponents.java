@@ -0,0 +1,56 @@
+package com.sxh.eventbus;
+
+/**
+ * 平台相关的默认组件：运行在Android上时加载Looper主线程实现和Logcat日志，否则不提供主线程、日志输出到java.util.logging
+ * <p>
+ * Android实现通过类名加载，核心代码不引用任何Android类，可以脱离Android编译和运行（如JVM上的基准测试）
+ */
+final class PlatformComponents {
+
+    private static final String ANDROID_LOOPER_CLASS = "android.os.Looper";
+    private static final String ANDROID_MAIN_THREAD_SUPPORT_CLASS = "com.sxh.eventbus.AndroidMainThreadSupport";
+    private static final String ANDROID_LOGGER_CLASS = "com.sxh.eventbus.AndroidLogger";
+
+    private static final boolean ANDROID = isClassAvailable(ANDROID_LOOPER_CLASS);
+
+    private PlatformComponents() {
+    }
+
+    /**
+     * 默认的主线程支持，非Android环境返回null
+     */
+    static MainThreadSupport defaultMainThreadSupport() {
+        if (!ANDROID) {
+            return null;
+        }
+        try {
+            return (MainThreadSupport) Class.forName(ANDROID_MAIN_THREAD_SUPPORT_CLASS).getDeclaredConstructor().newInstance();
+        } catch (Throwable e) {
+            //只有android.jar桩代码、没有真实主线程（如本地单元测试）
+            return null;
+        }
+    }
+
+    /**
+     * 默认的日志输出
+     */
+    static Logger defaultLogger() {
+        if (ANDROID) {
+            try {
+                return (Logger) Class.forName(ANDROID_LOGGER_CLASS).getDeclaredConstructor().newInstance();
+            } catch (Throwable ignored) {
+                //回退到java.util.logging
+            }
+        }
+        return new JavaUtilLogger();
+    }
+
+    private static boolean isClassAvailable(String className) {
+        try {
+            Class.forName(className);
+            return true;
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.sxh.eventbus;
+
+/**
+ * 事件投递器，负责把订阅方法的执行切换到对应的线程
+ * <p>
+ * 只在EventBus内部使用，平台相关的部分通过MainThreadSupport接入
+ */
+interface Poster {
+
+    /**
+     * 将一次事件投递加入队列
+     *
+     * @param subscription 订阅者封装对象
+     * @param event        事件对象
+     */
+    void enqueue(Subscription subscription, Object event);
+
+    /**
+     * 将批量发布产生的一组事件投递整体加入队列，投递器只需唤醒或提交一次
+     *
+     * @param batch 按发布顺序排列的事件投递，入队后由投递器负责回收
+     */
+    void enqueueAll(PendingPostBatch batch);
+}
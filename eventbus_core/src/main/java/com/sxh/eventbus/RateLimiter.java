@@ -0,0 +1,118 @@
+package com.sxh.eventbus;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 防抖、节流，由时间轮驱动，每个限流对象同一时刻最多一个定时任务
+ * <p>
+ * 防抖：事件停止到达period之后，只交付最后一个，适合搜索框输入这类连续触发的事件；
+ * 节流：每个period最多交付一次，周期内第一个事件立即交付，其余的只保留最新的一个，周期结束时交付
+ */
+abstract class RateLimiter {
+
+    /**
+     * 所有限流对象共用的定时任务，参数为限流对象本身
+     */
+    private static final TimingWheel.Task EXPIRE_TASK = new TimingWheel.Task() {
+        @Override
+        public void run(Object argument) {
+            ((RateLimiter) argument).onExpired();
+        }
+    };
+
+    private final TimingWheel.Scheduler scheduler;
+    private final boolean debounce;
+    private final long periodNanos;
+    /**
+     * 以下字段只在当前对象锁内读写
+     */
+    private Object pendingEvent;
+    /**
+     * 正在计时的定时任务，为null表示空闲
+     */
+    private TimingWheel.Timeout timeout;
+    /**
+     * 防抖：最后一个事件到达的时间
+     */
+    private long lastOfferNanos;
+    private boolean cancelled;
+
+    RateLimiter(TimingWheel.Scheduler scheduler, boolean debounce, long periodMillis) {
+        this.scheduler = scheduler;
+        this.debounce = debounce;
+        this.periodNanos = TimeUnit.MILLISECONDS.toNanos(periodMillis);
+    }
+
+    /**
+     * 事件到达
+     *
+     * @return 是否立即交付，false表示暂存，由定时器到期后交付
+     */
+    boolean offer(Object event) {
+        synchronized (this) {
+            if (cancelled) {
+                return false;
+            }
+            if (debounce) {
+                pendingEvent = event;
+                lastOfferNanos = System.nanoTime();
+                //计时中只更新时间，到期时再按最后一个事件的时间顺延，不必每个事件都取消、重新添加定时任务
+                if (timeout == null) {
+                    timeout = scheduler.schedule(EXPIRE_TASK, this, periodNanos);
+                }
+                return false;
+            }
+            if (timeout == null) {
+                //周期内的第一个事件立即交付，并开始计时
+                timeout = scheduler.schedule(EXPIRE_TASK, this, periodNanos);
+                return true;
+            }
+            pendingEvent = event;
+            return false;
+        }
+    }
+
+    private void onExpired() {
+        Object event;
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            if (debounce) {
+                long remainingNanos = lastOfferNanos + periodNanos - System.nanoTime();
+                if (remainingNanos > 0) {
+                    timeout = scheduler.schedule(EXPIRE_TASK, this, remainingNanos);
+                    return;
+                }
+                timeout = null;
+            } else {
+                //交付了暂存的事件就开始下一个周期，否则回到空闲
+                timeout = pendingEvent != null ? scheduler.schedule(EXPIRE_TASK, this, periodNanos) : null;
+            }
+            event = pendingEvent;
+            pendingEvent = null;
+        }
+        if (event != null) {
+            deliver(event);
+        }
+    }
+
+    /**
+     * 解注册时取消，丢弃暂存的事件
+     */
+    void cancel() {
+        synchronized (this) {
+            cancelled = true;
+            pendingEvent = null;
+            if (timeout != null) {
+                timeout.cancel();
+                timeout = null;
+            }
+        }
+    }
+
+    /**
+     * 交付事件，在时间轮的执行线程上调用
+     */
+    abstract void deliver(Object event);
+}
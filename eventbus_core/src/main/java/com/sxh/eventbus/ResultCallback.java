@@ -0,0 +1,23 @@
+package com.sxh.eventbus;
+
+import java.util.List;
+
+/**
+ * postForResult的结果回调，每次发布恰好回调一次
+ * <p>
+ * 在最后一个执行完的订阅方法所在的线程上回调，超时则在定时任务的线程池上回调，需要更新界面时自行切换到主线程
+ */
+public interface ResultCallback {
+
+    /**
+     * 所有订阅方法都执行完
+     *
+     * @param results 按订阅顺序排列的有返回值的方法的结果，没有订阅方法时为空列表
+     */
+    void onResult(List<Object> results);
+
+    /**
+     * 有订阅方法抛出异常（第一个异常），或等待超时（TimeoutException），之后执行完的订阅方法结果被忽略
+     */
+    void onError(Throwable e);
+}
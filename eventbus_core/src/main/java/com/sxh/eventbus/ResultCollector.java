@@ -0,0 +1,102 @@
+package com.sxh.eventbus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+
+/**
+ * postForResult的结果收集器：每个订阅方法占一个位置，全部执行完后按订阅顺序汇总有返回值的结果
+ * <p>
+ * 各位置只由执行该订阅方法的线程写入一次，最后一个执行完的线程通过remaining的原子递减看到所有写入
+ */
+final class ResultCollector {
+
+    private final ResultCallback callback;
+    private final Logger logger;
+    private final Object[] results;
+    private final boolean[] hasResults;
+    private final AtomicInteger remaining;
+    /**
+     * 第一个执行异常的订阅方法抛出的异常
+     */
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    /**
+     * 是否已经回调，全部执行完和超时只回调先发生的一个
+     */
+    private final AtomicBoolean done = new AtomicBoolean();
+    /**
+     * 超时任务，没有设置超时为null，全部执行完时取消
+     */
+    Cancellable timeoutTask;
+
+    ResultCollector(int count, ResultCallback callback, Logger logger) {
+        this.callback = callback;
+        this.logger = logger;
+        results = new Object[count];
+        hasResults = new boolean[count];
+        remaining = new AtomicInteger(count);
+    }
+
+    /**
+     * 订阅方法执行完
+     *
+     * @param hasResult 是否有返回值，void方法、已解注册的订阅者没有
+     */
+    void complete(int index, Object result, boolean hasResult) {
+        results[index] = result;
+        hasResults[index] = hasResult;
+        countDown();
+    }
+
+    void fail(Throwable e) {
+        failure.compareAndSet(null, e);
+        countDown();
+    }
+
+    /**
+     * 等待超时，由定时任务调用
+     */
+    void timeout() {
+        if (done.compareAndSet(false, true)) {
+            onError(new TimeoutException("等待订阅方法结果超时"));
+        }
+    }
+
+    private void countDown() {
+        if (remaining.decrementAndGet() != 0 || !done.compareAndSet(false, true)) {
+            return;
+        }
+        if (timeoutTask != null) {
+            timeoutTask.cancel();
+        }
+        Throwable e = failure.get();
+        if (e != null) {
+            onError(e);
+            return;
+        }
+        List<Object> list = new ArrayList<>();
+        for (int i = 0; i < results.length; i++) {
+            if (hasResults[i]) {
+                list.add(results[i]);
+            }
+        }
+        try {
+            callback.onResult(list);
+        } catch (RuntimeException callbackException) {
+            //回调运行在投递器的线程上，异常不能中断投递器
+            logger.log(Level.SEVERE, "postForResult回调异常", callbackException);
+        }
+    }
+
+    private void onError(Throwable e) {
+        try {
+            callback.onError(e);
+        } catch (RuntimeException callbackException) {
+            logger.log(Level.SEVERE, "postForResult回调异常", callbackException);
+        }
+    }
+}
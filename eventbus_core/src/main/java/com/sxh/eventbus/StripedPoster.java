@@ -0,0 +1,110 @@
+package com.sxh.eventbus;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 有序异步投递器：按订阅者对象的哈希分到固定数量的条带上，每个条带同一时刻只有一个任务依次执行，
+ * 同一订阅者的投递按发布顺序串行执行，不同条带之间并行，不需要为每个订阅者单独占用一个线程
+ * <p>
+ * 与AsyncPoster一样不使用synchronized，可以运行在虚拟线程上
+ */
+final class StripedPoster implements Poster {
+
+    private final Stripe[] stripes;
+    private final PendingPost.Pool pendingPostPool;
+
+    StripedPoster(EventBus eventBus, Executor executor, int stripeCount) {
+        pendingPostPool = eventBus.pendingPostPool;
+        stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(eventBus, executor);
+        }
+    }
+
+    @Override
+    public void enqueue(Subscription subscription, Object event) {
+        Stripe stripe = stripeOf(subscription);
+        stripe.queue.offer(pendingPostPool.obtain(subscription, event));
+        stripe.schedule();
+    }
+
+    /**
+     * 按条带拆开批次，每个条带入队后只提交一次执行任务
+     */
+    @Override
+    public void enqueueAll(PendingPostBatch batch) {
+        boolean[] touched = new boolean[stripes.length];
+        for (PendingPost pendingPost = batch.head; pendingPost != null; ) {
+            PendingPost next = pendingPost.next;
+            pendingPost.next = null;
+            int index = indexOf(pendingPost.subscription);
+            stripes[index].queue.offer(pendingPost);
+            touched[index] = true;
+            pendingPost = next;
+        }
+        for (int i = 0; i < stripes.length; i++) {
+            if (touched[i]) {
+                stripes[i].schedule();
+            }
+        }
+    }
+
+    private Stripe stripeOf(Subscription subscription) {
+        return stripes[indexOf(subscription)];
+    }
+
+    /**
+     * 同一订阅者对象始终落在同一条带上；使用identityHashCode，不受订阅者重写hashCode()影响
+     */
+    private int indexOf(Subscription subscription) {
+        int h = subscription.subscriberHash;
+        //高位参与运算，避免条带数为2的幂时只取到低位
+        h ^= h >>> 16;
+        return (h & Integer.MAX_VALUE) % stripes.length;
+    }
+
+    /**
+     * 一个条带：无锁队列加上 是否已提交执行任务 的标记
+     */
+    private static final class Stripe implements Runnable {
+
+        final ConcurrentLinkedQueue<PendingPost> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final EventBus eventBus;
+        private final Executor executor;
+
+        Stripe(EventBus eventBus, Executor executor) {
+            this.eventBus = eventBus;
+            this.executor = executor;
+        }
+
+        void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RuntimeException e) {
+                    scheduled.set(false);
+                    throw e;
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                PendingPost pendingPost = queue.poll();
+                if (pendingPost == null) {
+                    scheduled.set(false);
+                    //先清除标记再检查一次，与enqueue的 先入队再抢标记 配合，避免漏掉投递
+                    if (queue.isEmpty() || !scheduled.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                eventBus.invokeSubscriber(pendingPost);
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.sxh.eventbus;
+
+import com.sxh.eventbus_annotation.ISubscriberInfoIndex;
+import com.sxh.eventbus_annotation.SubscriberInfo;
+
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * 合并后的订阅者索引表：EventBus创建时把所有模块的APT索引合并到一张开放寻址表中，
+ * 以订阅者类名为key、所属索引的位置为value，查找时只需一次探测，不必依次询问每个索引
+ * <p>
+ * 合并时只读取类名字符串，不加载订阅者类，也不创建订阅方法，订阅方法由所属索引在第一次注册时创建
+ * 创建后只读，多线程读取无需加锁
+ */
+final class SubscriberInfoTable {
+
+    /**
+     * 订阅者类名 -> 所属索引在indexes中的位置
+     */
+    private final NameTable indexPositions;
+    private final ISubscriberInfoIndex[] indexes;
+    /**
+     * 合并的索引个数
+     */
+    private final int indexCount;
+    private final Logger logger;
+
+    SubscriberInfoTable(List<ISubscriberInfoIndex> indexes, Logger logger) {
+        this.logger = logger;
+        indexCount = indexes.size();
+        int size = 0;
+        String[][] classNamesByIndex = new String[indexes.size()][];
+        for (int i = 0; i < indexes.size(); i++) {
+            classNamesByIndex[i] = indexes.get(i).getSubscriberClassNames();
+            size += classNamesByIndex[i].length;
+        }
+        indexPositions = new NameTable(size);
+        this.indexes = indexes.toArray(new ISubscriberInfoIndex[indexes.size()]);
+        for (int i = 0; i < indexes.size(); i++) {
+            for (String className : classNamesByIndex[i]) {
+                if (indexPositions.putIfAbsent(className, i) >= 0) {
+                    //多个模块的索引包含同一个订阅者，以先添加的索引为准
+                    logger.log(Level.WARNING, className + "在多个索引中重复出现，忽略后添加的索引");
+                }
+            }
+        }
+    }
+
+    /**
+     * 查找订阅者所属索引的位置，没有则返回-1
+     */
+    int findIndexPosition(Class<?> subscriberClass) {
+        return indexPositions.get(subscriberClass.getName());
+    }
+
+    /**
+     * 由订阅者所属的索引创建订阅方法
+     */
+    SubscriberInfo getSubscriberInfo(int indexPosition, Class<?> subscriberClass) {
+        return indexes[indexPosition].getSubscriberInfo(subscriberClass);
+    }
+
+    int getIndexCount() {
+        return indexCount;
+    }
+}
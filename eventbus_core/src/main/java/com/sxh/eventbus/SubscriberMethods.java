@@ -0,0 +1,18 @@
+package com.sxh.eventbus;
+
+import com.sxh.eventbus_annotation.SubscriberMethod;
+
+/**
+ * 订阅者类的所有订阅方法，以及每个订阅方法在当前EventBus中的事件类型id，按订阅者类缓存
+ * 注册时按事件类型id直接挂到对应的槽位上，无需再用事件Class查找
+ */
+final class SubscriberMethods {
+
+    final SubscriberMethod[] methods;
+    final int[] eventTypeIds;
+
+    SubscriberMethods(SubscriberMethod[] methods, int[] eventTypeIds) {
+        this.methods = methods;
+        this.eventTypeIds = eventTypeIds;
+    }
+}
@@ -0,0 +1,39 @@
+package com.sxh.eventbus;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+/**
+ * 弱引用注册的订阅者，同一次注册的所有订阅句柄共用一个，订阅者被回收后进入EventBus的引用队列
+ * <p>
+ * 按订阅者对象本身（而不是equals）比较，用作订阅者句柄集合的key；被回收后只与自身相等，仍能从集合中移除
+ */
+final class SubscriberReference extends WeakReference<Object> {
+
+    /**
+     * 订阅者的identityHashCode，创建时计算，回收后保持不变
+     */
+    final int hash;
+
+    SubscriberReference(Object subscriber, ReferenceQueue<Object> queue) {
+        super(subscriber, queue);
+        hash = System.identityHashCode(subscriber);
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (object == this) {
+            return true;
+        }
+        if (!(object instanceof SubscriberReference)) {
+            return false;
+        }
+        Object subscriber = get();
+        return subscriber != null && subscriber == ((SubscriberReference) object).get();
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
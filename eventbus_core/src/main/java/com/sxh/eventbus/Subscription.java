@@ -0,0 +1,101 @@
+package com.sxh.eventbus;
+
+
+import com.sxh.eventbus_annotation.SubscriberMethod;
+import com.sxh.eventbus_annotation.ThreadMode;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 封装在EventBus类中使用的订阅方法
+ */
+final class Subscription {
+
+    /**
+     * 订阅者，弱引用注册时为null，见getSubscriber()
+     * 如：MainActivity.class
+     */
+    final Object subscriber;
+    /**
+     * 弱引用注册的订阅者，普通注册时为null
+     */
+    final SubscriberReference subscriberReference;
+    /**
+     * 订阅者的identityHashCode，弱引用的订阅者被回收后保持不变
+     */
+    final int subscriberHash;
+    /**
+     * 订阅的方法
+     * 如：onEvent(LoginEvent event)
+     */
+    final SubscriberMethod subscriberMethod;
+    /**
+     * 事件类型id，即在EventBus订阅者数组中的槽位
+     */
+    final int eventTypeId;
+
+    /**
+     * 是否有效，解注册后置为false，避免排队中的事件继续执行已解注册的订阅者
+     */
+    volatile boolean active;
+    /**
+     * 合并投递的订阅方法才有：最新的一个还未执行的事件，为null表示没有排队中的投递
+     */
+    final AtomicReference<Object> conflatedEvent;
+    /**
+     * 设置了信箱容量的ASYNC订阅方法才有：有界信箱，投递先放入这里
+     */
+    final Mailbox mailbox;
+    /**
+     * 设置了防抖、节流的订阅方法才有，注册时创建，在放入订阅者数组之前赋值
+     */
+    RateLimiter rateLimiter;
+
+    Subscription(Object subscriber, SubscriberMethod subscriberMethod, int eventTypeId) {
+        this(subscriber, null, System.identityHashCode(subscriber), subscriberMethod, eventTypeId);
+    }
+
+    Subscription(SubscriberReference subscriberReference, SubscriberMethod subscriberMethod, int eventTypeId) {
+        this(null, subscriberReference, subscriberReference.hash, subscriberMethod, eventTypeId);
+    }
+
+    private Subscription(Object subscriber, SubscriberReference subscriberReference, int subscriberHash,
+                         SubscriberMethod subscriberMethod, int eventTypeId) {
+        this.subscriber = subscriber;
+        this.subscriberReference = subscriberReference;
+        this.subscriberHash = subscriberHash;
+        this.subscriberMethod = subscriberMethod;
+        this.eventTypeId = eventTypeId;
+        conflatedEvent = subscriberMethod.isConflate() ? new AtomicReference<>() : null;
+        mailbox = subscriberMethod.getThreadMode() == ThreadMode.ASYNC && subscriberMethod.getMailboxCapacity() > 0
+                ? new Mailbox(subscriberMethod.getMailboxCapacity(), subscriberMethod.getBackpressure())
+                : null;
+        active = true;
+    }
+
+    /**
+     * 订阅者，弱引用的订阅者已被回收时返回null
+     */
+    Object getSubscriber() {
+        return subscriber != null ? subscriber : subscriberReference.get();
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        // 必须重写方法，检测激活粘性事件重复调用（同一对象注册多个）
+        if (object instanceof Subscription) {
+            Subscription otherSubscription = (Subscription) object;
+            // 订阅者必须是同一个对象：解注册会真正移除句柄，新的订阅者实例不会再与旧实例混淆
+            Object target = getSubscriber();
+            return target != null && target == otherSubscription.getSubscriber()
+                    && subscriberMethod.equals(otherSubscription.subscriberMethod);
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * subscriberHash + subscriberMethod.hashCode();
+    }
+}
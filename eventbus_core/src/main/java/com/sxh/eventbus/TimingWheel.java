@@ -0,0 +1,369 @@
+package com.sxh.eventbus;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+
+/**
+ * 哈希时间轮：延迟发布、防抖、节流、postForResult超时共用的定时器
+ * <p>
+ * 时间按固定刻度划分，每个刻度一个槽位，定时任务按到期刻度放入对应槽位的双向链表，超过一圈的记录剩余圈数。
+ * 添加、取消都是O(1)：先放入无锁队列，由唯一的定时线程在每个刻度开始时移入或移出槽位。
+ * 没有定时任务时定时线程挂起，不会空转
+ * <p>
+ * 进程内所有EventBus共用一个时间轮（{@link #shared()}），创建再多的EventBus也只有一个定时线程，不需要关闭；
+ * 每个EventBus通过自己的Scheduler添加定时任务，到期任务交给该EventBus的线程池依次执行，定时线程只负责计时
+ */
+final class TimingWheel implements Runnable {
+
+    /**
+     * 刻度时长，定时精度不高于它
+     */
+    private static final long TICK_NANOS = 10L * 1000 * 1000;
+    /**
+     * 槽位数，必须是2的幂，一圈为512 * 10毫秒
+     */
+    private static final int WHEEL_SIZE = 512;
+    /**
+     * 每个刻度最多从队列移入槽位的任务数，避免突发大量定时任务时耽误计时
+     */
+    private static final int MAX_TRANSFER_PER_TICK = 100000;
+
+    private final Bucket[] wheel = new Bucket[WHEEL_SIZE];
+    private final ConcurrentLinkedQueue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    /**
+     * 还未到期、也未取消的任务数，为0时定时线程挂起
+     */
+    private final AtomicInteger timeoutCount = new AtomicInteger();
+    /**
+     * 时间原点，刻度和到期时间都相对它计算
+     */
+    private final long startTime = System.nanoTime();
+    private final Thread ticker;
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    TimingWheel() {
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new Bucket();
+        }
+        ticker = new Thread(this, "EventBus-timer");
+        //只负责计时，不阻止进程退出
+        ticker.setDaemon(true);
+    }
+
+    /**
+     * 进程内共用的时间轮，第一次使用时才创建
+     */
+    static TimingWheel shared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    /**
+     * 添加定时任务，第一次调用时才启动定时线程
+     */
+    private Timeout schedule(Scheduler scheduler, Task task, Object argument, long delayNanos) {
+        if (!started.get() && started.compareAndSet(false, true)) {
+            ticker.start();
+        }
+        Timeout timeout = new Timeout(this, scheduler, task, argument, System.nanoTime() - startTime + Math.max(delayNanos, 0));
+        pendingTimeouts.offer(timeout);
+        if (timeoutCount.getAndIncrement() == 0) {
+            //定时线程可能因为没有任务而挂起
+            LockSupport.unpark(ticker);
+        }
+        return timeout;
+    }
+
+    @Override
+    public void run() {
+        long tick = currentTick();
+        while (true) {
+            if (timeoutCount.get() == 0) {
+                LockSupport.park(this);
+                //挂起期间没有任何定时任务，直接跳到当前刻度
+                tick = currentTick();
+                continue;
+            }
+            long deadline = waitForNextTick(tick);
+            removeCancelledTimeouts();
+            transferTimeouts(tick);
+            wheel[(int) (tick & (WHEEL_SIZE - 1))].expireTimeouts(deadline);
+            tick++;
+        }
+    }
+
+    private long currentTick() {
+        return (System.nanoTime() - startTime) / TICK_NANOS;
+    }
+
+    /**
+     * 等到下一个刻度开始，返回该刻度的时间（相对startTime），落后时直接返回用于追赶
+     */
+    private long waitForNextTick(long tick) {
+        long deadline = TICK_NANOS * (tick + 1);
+        while (true) {
+            long sleepNanos = deadline - (System.nanoTime() - startTime);
+            if (sleepNanos <= 0) {
+                return deadline;
+            }
+            try {
+                Thread.sleep((sleepNanos + 999999) / 1000000);
+            } catch (InterruptedException ignored) {
+                //定时线程不响应中断，继续计时
+            }
+        }
+    }
+
+    private void removeCancelledTimeouts() {
+        Timeout timeout;
+        while ((timeout = cancelledTimeouts.poll()) != null) {
+            //还在pendingTimeouts中的由transferTimeouts丢弃
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+                timeoutCount.decrementAndGet();
+            }
+        }
+    }
+
+    private void transferTimeouts(long tick) {
+        for (int i = 0; i < MAX_TRANSFER_PER_TICK; i++) {
+            Timeout timeout = pendingTimeouts.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state == Timeout.ST_CANCELLED) {
+                timeoutCount.decrementAndGet();
+                continue;
+            }
+            long calculated = timeout.deadline / TICK_NANOS;
+            timeout.remainingRounds = (calculated - tick) / WHEEL_SIZE;
+            //已经过期的放到当前刻度，本刻度就执行
+            long ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & (WHEEL_SIZE - 1))].add(timeout);
+        }
+    }
+
+    private void onExpired(Timeout timeout) {
+        timeoutCount.decrementAndGet();
+        timeout.scheduler.onExpired(timeout);
+    }
+
+    private static final class SharedHolder {
+
+        static final TimingWheel INSTANCE = new TimingWheel();
+    }
+
+    /**
+     * 每个EventBus一个：把定时任务加到共用的时间轮上，到期后在自己的线程池上依次执行，
+     * 一个EventBus的慢任务不会耽误定时线程，也不会耽误其他EventBus的定时任务
+     */
+    static final class Scheduler {
+
+        private final TimingWheel timingWheel;
+        private final Executor executor;
+        private final Logger logger;
+        /**
+         * 已到期、等待执行的任务，由executor上的同一个任务依次执行
+         */
+        private final ConcurrentLinkedQueue<Timeout> expiredTimeouts = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final Runnable drainer = new Runnable() {
+            @Override
+            public void run() {
+                drainExpired();
+            }
+        };
+
+        Scheduler(TimingWheel timingWheel, Executor executor, Logger logger) {
+            this.timingWheel = timingWheel;
+            this.executor = executor;
+            this.logger = logger;
+        }
+
+        /**
+         * 添加定时任务
+         *
+         * @param task       到期后执行的任务
+         * @param argument   传给任务的参数，多个定时任务可以共用同一个task，不必为每个任务创建包装对象
+         * @param delayNanos 延迟时间，单位纳秒
+         */
+        Timeout schedule(Task task, Object argument, long delayNanos) {
+            return timingWheel.schedule(this, task, argument, delayNanos);
+        }
+
+        /**
+         * 到期任务放入队列，没有执行任务时才提交一个，在定时线程上调用
+         */
+        private void onExpired(Timeout timeout) {
+            expiredTimeouts.offer(timeout);
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    executor.execute(drainer);
+                } catch (RuntimeException e) {
+                    //线程池已关闭等情况：定时线程由所有EventBus共用，不能在上面执行订阅方法，丢弃已到期的任务
+                    int dropped = 0;
+                    while (expiredTimeouts.poll() != null) {
+                        dropped++;
+                    }
+                    draining.set(false);
+                    logger.log(Level.SEVERE, "线程池拒绝执行定时任务，丢弃" + dropped + "个到期任务", e);
+                }
+            }
+        }
+
+        private void drainExpired() {
+            while (true) {
+                Timeout timeout = expiredTimeouts.poll();
+                if (timeout == null) {
+                    draining.set(false);
+                    //先清除标记再检查一次，与onExpired的 先入队再抢标记 配合，避免漏掉任务
+                    if (expiredTimeouts.isEmpty() || !draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                try {
+                    timeout.task.run(timeout.argument);
+                } catch (Throwable e) {
+                    logger.log(Level.SEVERE, "定时任务执行异常", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 定时任务
+     */
+    interface Task {
+
+        void run(Object argument);
+    }
+
+    /**
+     * 一个定时任务，同时也是槽位双向链表的节点
+     */
+    static final class Timeout implements Cancellable {
+
+        static final int ST_INIT = 0;
+        static final int ST_CANCELLED = 1;
+        static final int ST_EXPIRED = 2;
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final TimingWheel timingWheel;
+        private final Scheduler scheduler;
+        final Task task;
+        final Object argument;
+        /**
+         * 到期时间，相对startTime
+         */
+        final long deadline;
+        volatile int state;
+        /**
+         * 以下字段只由定时线程读写
+         */
+        long remainingRounds;
+        Bucket bucket;
+        Timeout prev;
+        Timeout next;
+
+        Timeout(TimingWheel timingWheel, Scheduler scheduler, Task task, Object argument, long deadline) {
+            this.timingWheel = timingWheel;
+            this.scheduler = scheduler;
+            this.task = task;
+            this.argument = argument;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+            //由定时线程在下一个刻度从槽位中移除
+            timingWheel.cancelledTimeouts.offer(this);
+            return true;
+        }
+
+        /**
+         * @return 是否到期执行，已被取消时返回false
+         */
+        boolean expire() {
+            if (!STATE.compareAndSet(this, ST_INIT, ST_EXPIRED)) {
+                return false;
+            }
+            timingWheel.onExpired(this);
+            return true;
+        }
+    }
+
+    /**
+     * 槽位：定时任务的双向链表，只由定时线程读写
+     */
+    private final class Bucket {
+
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        /**
+         * 执行本刻度到期的任务，其余的剩余圈数减一
+         */
+        void expireTimeouts(long deadline) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.state == Timeout.ST_CANCELLED) {
+                    remove(timeout);
+                    timeoutCount.decrementAndGet();
+                } else if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    if (timeout.deadline > deadline) {
+                        throw new IllegalStateException("定时任务放错了槽位：" + timeout.deadline + " > " + deadline);
+                    }
+                    if (!timeout.expire()) {
+                        //刚好被取消，已移出槽位，removeCancelledTimeouts不会再计数
+                        timeoutCount.decrementAndGet();
+                    }
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        void remove(Timeout timeout) {
+            Timeout next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.sxh.eventbus;
+
+import com.sxh.eventbus_annotation.Subscribe;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 多个线程同时发布，以及发布的同时其他线程注册、解注册：订阅数组写时复制，
+ * 发布线程读到的始终是完整的快照，不丢事件、不重复投递、不抛出异常
+ */
+public class ConcurrentPostTest {
+
+    private static final int THREADS = 4;
+    private static final int POSTS_PER_THREAD = 20000;
+    private static final int SUBSCRIBERS_PER_THREAD = 100;
+
+    private EventBus eventBus;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        eventBus = EventBus.builder().addIndex(new EventBusTestIndex()).build();
+        executor = Executors.newFixedThreadPool(THREADS * 2);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void postFromSeveralThreadsWhileRegistering() throws Exception {
+        CountingSubscriber stable = new CountingSubscriber();
+        eventBus.register(stable);
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicBoolean posting = new AtomicBoolean(true);
+        final AtomicInteger postersLeft = new AtomicInteger(THREADS);
+        final List<CountingSubscriber> churnSubscribers = new ArrayList<>();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    start.await();
+                    ConcurrentEvent event = new ConcurrentEvent();
+                    for (int i = 0; i < POSTS_PER_THREAD; i++) {
+                        eventBus.post(event);
+                    }
+                    if (postersLeft.decrementAndGet() == 0) {
+                        posting.set(false);
+                    }
+                    return null;
+                }
+            }));
+            final CountingSubscriber churnSubscriber = new CountingSubscriber();
+            churnSubscribers.add(churnSubscriber);
+            futures.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    start.await();
+                    while (posting.get()) {
+                        eventBus.register(churnSubscriber);
+                        eventBus.unregister(churnSubscriber);
+                    }
+                    return null;
+                }
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            //发布、注册线程中的异常在这里抛出
+            future.get(60, TimeUnit.SECONDS);
+        }
+
+        assertEquals(THREADS * POSTS_PER_THREAD, stable.count.get());
+        for (CountingSubscriber churnSubscriber : churnSubscribers) {
+            assertFalse(eventBus.isRegistered(churnSubscriber));
+            assertTrue(churnSubscriber.count.get() <= THREADS * POSTS_PER_THREAD);
+        }
+        //解注册后不再收到事件
+        int[] counts = new int[churnSubscribers.size()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = churnSubscribers.get(i).count.get();
+        }
+        eventBus.post(new ConcurrentEvent());
+        for (int i = 0; i < counts.length; i++) {
+            assertEquals(counts[i], churnSubscribers.get(i).count.get());
+        }
+        assertEquals(THREADS * POSTS_PER_THREAD + 1, stable.count.get());
+    }
+
+    @Test
+    public void registerAndUnregisterFromSeveralThreads() throws Exception {
+        final List<List<CountingSubscriber>> subscribersByThread = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            List<CountingSubscriber> subscribers = new ArrayList<>();
+            for (int i = 0; i < SUBSCRIBERS_PER_THREAD; i++) {
+                subscribers.add(new CountingSubscriber());
+            }
+            subscribersByThread.add(subscribers);
+        }
+
+        runOnEachThread(subscribersByThread, true);
+        eventBus.post(new ConcurrentEvent());
+        for (List<CountingSubscriber> subscribers : subscribersByThread) {
+            for (CountingSubscriber subscriber : subscribers) {
+                //注册互不覆盖，每个订阅者恰好收到一次
+                assertEquals(1, subscriber.count.get());
+            }
+        }
+
+        runOnEachThread(subscribersByThread, false);
+        eventBus.post(new ConcurrentEvent());
+        for (List<CountingSubscriber> subscribers : subscribersByThread) {
+            for (CountingSubscriber subscriber : subscribers) {
+                assertFalse(eventBus.isRegistered(subscriber));
+                assertEquals(1, subscriber.count.get());
+            }
+        }
+    }
+
+    /**
+     * 每个线程注册或解注册自己的一组订阅者，同时开始
+     */
+    private void runOnEachThread(List<List<CountingSubscriber>> subscribersByThread, final boolean register) throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (final List<CountingSubscriber> subscribers : subscribersByThread) {
+            futures.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    start.await();
+                    for (CountingSubscriber subscriber : subscribers) {
+                        if (register) {
+                            eventBus.register(subscriber);
+                        } else {
+                            eventBus.unregister(subscriber);
+                        }
+                    }
+                    return null;
+                }
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+    }
+
+    public static final class ConcurrentEvent {
+    }
+
+    public static final class CountingSubscriber {
+
+        final AtomicInteger count = new AtomicInteger();
+
+        @Subscribe
+        public void onEvent(ConcurrentEvent event) {
+            count.incrementAndGet();
+        }
+    }
+}
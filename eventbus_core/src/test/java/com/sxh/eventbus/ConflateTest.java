@@ -0,0 +1,162 @@
+package com.sxh.eventbus;
+
+import com.sxh.eventbus_annotation.Subscribe;
+import com.sxh.eventbus_annotation.ThreadMode;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 合并投递：排队期间到达的一串事件只执行最新的一个
+ * <p>
+ * 主线程、后台线程各用一个单线程池模拟，先占住线程，发布一串事件后再放开
+ */
+public class ConflateTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+    private static final int BURST = 100;
+
+    private ExecutorService mainThread;
+    private ExecutorService background;
+    private EventBus eventBus;
+
+    @Before
+    public void setUp() {
+        mainThread = Executors.newSingleThreadExecutor();
+        background = Executors.newSingleThreadExecutor();
+        eventBus = EventBus.builder()
+                .addIndex(new EventBusTestIndex())
+                .executorService(background)
+                .mainThreadSupport(new MainThreadSupport() {
+                    @Override
+                    public boolean isMainThread() {
+                        return false;
+                    }
+
+                    @Override
+                    public void execute(Runnable runnable) {
+                        mainThread.execute(runnable);
+                    }
+                })
+                .build();
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        mainThread.shutdownNow();
+        background.shutdownNow();
+        assertTrue(mainThread.awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertTrue(background.awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void mainBurstCollapsesToLatest() throws Exception {
+        ConflatingSubscriber subscriber = new ConflatingSubscriber();
+        eventBus.register(subscriber);
+        assertBurstsCollapse(mainThread, subscriber.main);
+    }
+
+    @Test
+    public void backgroundBurstCollapsesToLatest() throws Exception {
+        ConflatingSubscriber subscriber = new ConflatingSubscriber();
+        eventBus.register(subscriber);
+        assertBurstsCollapse(background, subscriber.background);
+    }
+
+    /**
+     * 两轮：每轮占住线程后发布一串事件，放开后只收到这一轮的最后一个
+     */
+    private void assertBurstsCollapse(ExecutorService thread, Recorder recorder) throws Exception {
+        for (int round = 0; round < 2; round++) {
+            CountDownLatch release = block(thread);
+            for (int i = 0; i < BURST; i++) {
+                eventBus.post(new ConflateEvent(round * BURST + i));
+            }
+            release.countDown();
+            recorder.await(round + 1);
+        }
+        Thread.sleep(50);
+        assertEquals(Arrays.asList(BURST - 1, 2 * BURST - 1), recorder.values());
+    }
+
+    /**
+     * 占住线程，直到返回的latch放开
+     */
+    private static CountDownLatch block(ExecutorService thread) throws InterruptedException {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        thread.execute(new Runnable() {
+            @Override
+            public void run() {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        assertTrue(blocked.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        return release;
+    }
+
+    static final class Recorder {
+
+        private final List<Integer> values = new ArrayList<>();
+
+        synchronized void record(int value) {
+            values.add(value);
+            notifyAll();
+        }
+
+        synchronized List<Integer> values() {
+            return new ArrayList<>(values);
+        }
+
+        synchronized void await(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS);
+            while (values.size() < count) {
+                long remaining = deadline - System.currentTimeMillis();
+                assertTrue("等待事件超时，已收到：" + values, remaining > 0);
+                wait(remaining);
+            }
+        }
+    }
+
+    public static final class ConflateEvent {
+
+        final int value;
+
+        ConflateEvent(int value) {
+            this.value = value;
+        }
+    }
+
+    public static final class ConflatingSubscriber {
+
+        final Recorder main = new Recorder();
+        final Recorder background = new Recorder();
+
+        @Subscribe(threadMode = ThreadMode.MAIN, conflate = true)
+        public void onMain(ConflateEvent event) {
+            main.record(event.value);
+        }
+
+        @Subscribe(threadMode = ThreadMode.BACKGROUND, conflate = true)
+        public void onBackground(ConflateEvent event) {
+            background.record(event.value);
+        }
+    }
+}
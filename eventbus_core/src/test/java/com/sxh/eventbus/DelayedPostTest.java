@@ -0,0 +1,276 @@
+package com.sxh.eventbus;
+
+import com.sxh.eventbus_annotation.Subscribe;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 延迟发布、取消，以及按订阅方法、按事件类型的防抖、节流，都由共用的时间轮驱动（刻度10毫秒，一圈5.12秒）
+ */
+public class DelayedPostTest {
+
+    private static final long TIMEOUT_MILLIS = 10000;
+
+    private EventBus eventBus;
+
+    @Before
+    public void setUp() {
+        eventBus = EventBus.builder()
+                .addIndex(new EventBusTestIndex())
+                .debounce(TypeDebouncedEvent.class, 100)
+                .throttle(TypeThrottledEvent.class, 300)
+                .build();
+    }
+
+    @Test
+    public void delayedPostIsNotDeliveredEarly() throws Exception {
+        DelayedSubscriber subscriber = new DelayedSubscriber();
+        eventBus.register(subscriber);
+        long posted = System.nanoTime();
+        eventBus.postDelayed(new DelayedEvent(1), 100);
+        assertTrue(subscriber.recorder.values().isEmpty());
+
+        subscriber.recorder.await(1);
+        assertEquals(Arrays.asList(1), subscriber.recorder.values());
+        assertTrue(subscriber.recorder.firstMillisSince(posted) >= 100);
+    }
+
+    @Test
+    public void cancelBeforeExpiryDropsEvent() throws Exception {
+        DelayedSubscriber subscriber = new DelayedSubscriber();
+        eventBus.register(subscriber);
+        Cancellable cancelled = eventBus.postDelayed(new DelayedEvent(1), 100);
+        Cancellable kept = eventBus.postDelayed(new DelayedEvent(2), 100);
+        assertTrue(cancelled.cancel());
+        //已经取消过
+        assertFalse(cancelled.cancel());
+
+        subscriber.recorder.await(1);
+        Thread.sleep(200);
+        assertEquals(Arrays.asList(2), subscriber.recorder.values());
+        //已经到期
+        assertFalse(kept.cancel());
+    }
+
+    @Test
+    public void delayLongerThanOneRevolution() throws Exception {
+        DelayedSubscriber subscriber = new DelayedSubscriber();
+        eventBus.register(subscriber);
+        long posted = System.nanoTime();
+        //超过一圈（5.12秒），需要先转过剩余圈数才到期
+        eventBus.postDelayed(new DelayedEvent(2), 6000);
+        eventBus.postDelayed(new DelayedEvent(1), 500);
+
+        subscriber.recorder.await(2);
+        assertEquals(Arrays.asList(1, 2), subscriber.recorder.values());
+        assertTrue(subscriber.recorder.millisSince(1, posted) >= 6000);
+    }
+
+    @Test
+    public void debounceDeliversOnlyTrailingEvent() throws Exception {
+        DebouncedSubscriber subscriber = new DebouncedSubscriber();
+        eventBus.register(subscriber);
+        long lastPosted = 0;
+        for (int i = 0; i < 5; i++) {
+            //间隔小于防抖时间，一直顺延
+            eventBus.post(new RateEvent(i));
+            lastPosted = System.nanoTime();
+            Thread.sleep(20);
+        }
+        assertTrue(subscriber.recorder.values().isEmpty());
+
+        subscriber.recorder.await(1);
+        Thread.sleep(200);
+        assertEquals(Arrays.asList(4), subscriber.recorder.values());
+        assertTrue(subscriber.recorder.firstMillisSince(lastPosted) >= 100);
+    }
+
+    @Test
+    public void throttleDeliversLeadingThenLatestPerWindow() throws Exception {
+        ThrottledSubscriber subscriber = new ThrottledSubscriber();
+        eventBus.register(subscriber);
+        for (int i = 0; i < 4; i++) {
+            eventBus.post(new RateEvent(i));
+        }
+        //周期内第一个立即交付，其余只保留最新的一个
+        assertEquals(Arrays.asList(0), subscriber.recorder.values());
+
+        subscriber.recorder.await(2);
+        assertEquals(Arrays.asList(0, 3), subscriber.recorder.values());
+
+        //交付3之后又开始一个周期，周期内没有新事件则回到空闲，下一个事件立即交付
+        Thread.sleep(800);
+        eventBus.post(new RateEvent(4));
+        assertEquals(Arrays.asList(0, 3, 4), subscriber.recorder.values());
+    }
+
+    @Test
+    public void unregisterDropsPendingLimitedEvent() throws Exception {
+        DebouncedSubscriber subscriber = new DebouncedSubscriber();
+        eventBus.register(subscriber);
+        eventBus.post(new RateEvent(1));
+        eventBus.unregister(subscriber);
+        Thread.sleep(300);
+        assertTrue(subscriber.recorder.values().isEmpty());
+    }
+
+    @Test
+    public void builderDebouncesByEventType() throws Exception {
+        TypeLimitedSubscriber subscriber = new TypeLimitedSubscriber();
+        eventBus.register(subscriber);
+        for (int i = 0; i < 5; i++) {
+            eventBus.post(new TypeDebouncedEvent(i));
+        }
+        assertTrue(subscriber.debounced.values().isEmpty());
+
+        subscriber.debounced.await(1);
+        Thread.sleep(200);
+        assertEquals(Arrays.asList(4), subscriber.debounced.values());
+    }
+
+    @Test
+    public void builderThrottlesByEventType() throws Exception {
+        TypeLimitedSubscriber subscriber = new TypeLimitedSubscriber();
+        eventBus.register(subscriber);
+        for (int i = 0; i < 3; i++) {
+            eventBus.post(new TypeThrottledEvent(i));
+        }
+        assertEquals(Arrays.asList(0), subscriber.throttled.values());
+
+        subscriber.throttled.await(2);
+        assertEquals(Arrays.asList(0, 2), subscriber.throttled.values());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void builderRejectsDebounceAndThrottleOnSameType() {
+        EventBus.builder().debounce(RateEvent.class, 100).throttle(RateEvent.class, 100);
+    }
+
+    /**
+     * 记录收到的事件和时间
+     */
+    static final class Recorder {
+
+        private final List<Integer> values = new ArrayList<>();
+        private final List<Long> times = new ArrayList<>();
+
+        synchronized void record(int value) {
+            values.add(value);
+            times.add(System.nanoTime());
+            notifyAll();
+        }
+
+        synchronized List<Integer> values() {
+            return new ArrayList<>(values);
+        }
+
+        synchronized void await(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+            while (values.size() < count) {
+                long remaining = deadline - System.currentTimeMillis();
+                assertTrue("等待事件超时，已收到：" + values, remaining > 0);
+                wait(remaining);
+            }
+        }
+
+        synchronized long firstMillisSince(long startNanos) {
+            return millisSince(0, startNanos);
+        }
+
+        synchronized long millisSince(int index, long startNanos) {
+            return TimeUnit.NANOSECONDS.toMillis(times.get(index) - startNanos);
+        }
+    }
+
+    public static final class DelayedEvent {
+
+        final int value;
+
+        DelayedEvent(int value) {
+            this.value = value;
+        }
+    }
+
+    public static final class RateEvent {
+
+        final int value;
+
+        RateEvent(int value) {
+            this.value = value;
+        }
+    }
+
+    public static final class TypeDebouncedEvent {
+
+        final int value;
+
+        TypeDebouncedEvent(int value) {
+            this.value = value;
+        }
+    }
+
+    public static final class TypeThrottledEvent {
+
+        final int value;
+
+        TypeThrottledEvent(int value) {
+            this.value = value;
+        }
+    }
+
+    public static final class DelayedSubscriber {
+
+        final Recorder recorder = new Recorder();
+
+        @Subscribe
+        public void onEvent(DelayedEvent event) {
+            recorder.record(event.value);
+        }
+    }
+
+    public static final class DebouncedSubscriber {
+
+        final Recorder recorder = new Recorder();
+
+        @Subscribe(debounceMillis = 100)
+        public void onEvent(RateEvent event) {
+            recorder.record(event.value);
+        }
+    }
+
+    public static final class ThrottledSubscriber {
+
+        final Recorder recorder = new Recorder();
+
+        @Subscribe(throttleMillis = 300)
+        public void onEvent(RateEvent event) {
+            recorder.record(event.value);
+        }
+    }
+
+    public static final class TypeLimitedSubscriber {
+
+        final Recorder debounced = new Recorder();
+        final Recorder throttled = new Recorder();
+
+        @Subscribe
+        public void onDebounced(TypeDebouncedEvent event) {
+            debounced.record(event.value);
+        }
+
+        @Subscribe
+        public void onThrottled(TypeThrottledEvent event) {
+            throttled.record(event.value);
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.sxh.eventbus;
+
+import com.sxh.eventbus_annotation.BackpressurePolicy;
+import com.sxh.eventbus_annotation.Subscribe;
+import com.sxh.eventbus_annotation.ThreadMode;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * ASYNC有界信箱：各背压策略、信箱状态、解注册时关闭信箱、订阅方法向自己的信箱发布
+ * <p>
+ * 订阅方法执行第一个事件时停住，信箱（容量2）随后被填满，再发布一个事件触发背压策略
+ */
+public class MailboxTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private EventBus eventBus;
+    private ExecutorService publisher;
+
+    @Before
+    public void setUp() {
+        eventBus = EventBus.builder().addIndex(new EventBusTestIndex()).build();
+        publisher = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        publisher.shutdownNow();
+        assertTrue(publisher.awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void dropNewestDiscardsIncomingEvent() throws Exception {
+        DropNewestSubscriber subscriber = new DropNewestSubscriber();
+        fillMailbox(subscriber);
+        eventBus.post(new MailboxEvent(3));
+        assertStats(subscriber, BackpressurePolicy.DROP_NEWEST, 2, 1, 0);
+        subscriber.release.countDown();
+        subscriber.awaitReceived(0, 1, 2);
+    }
+
+    @Test
+    public void dropOldestDiscardsQueuedEvent() throws Exception {
+        DropOldestSubscriber subscriber = new DropOldestSubscriber();
+        fillMailbox(subscriber);
+        eventBus.post(new MailboxEvent(3));
+        assertStats(subscriber, BackpressurePolicy.DROP_OLDEST, 2, 1, 0);
+        subscriber.release.countDown();
+        subscriber.awaitReceived(0, 2, 3);
+    }
+
+    @Test
+    public void conflateReplacesLatestEvent() throws Exception {
+        ConflateSubscriber subscriber = new ConflateSubscriber();
+        fillMailbox(subscriber);
+        eventBus.post(new MailboxEvent(3));
+        assertStats(subscriber, BackpressurePolicy.CONFLATE, 2, 1, 0);
+        subscriber.release.countDown();
+        subscriber.awaitReceived(0, 1, 3);
+    }
+
+    @Test
+    public void blockWaitsForFreeSlot() throws Exception {
+        BlockSubscriber subscriber = new BlockSubscriber();
+        fillMailbox(subscriber);
+        Future<?> blocked = postOnPublisher(new MailboxEvent(3));
+        awaitBlocked(1);
+        assertFalse(blocked.isDone());
+        assertStats(subscriber, BackpressurePolicy.BLOCK, 2, 0, 1);
+
+        subscriber.release.countDown();
+        blocked.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        subscriber.awaitReceived(0, 1, 2, 3);
+    }
+
+    @Test
+    public void unregisterClosesMailboxAndWakesBlockedPublisher() throws Exception {
+        BlockSubscriber subscriber = new BlockSubscriber();
+        fillMailbox(subscriber);
+        Future<?> blocked = postOnPublisher(new MailboxEvent(3));
+        awaitBlocked(1);
+
+        eventBus.unregister(subscriber);
+        //阻塞中的发布线程被唤醒，信箱中未执行的事件被丢弃
+        blocked.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertTrue(eventBus.getMailboxStats().isEmpty());
+        subscriber.release.countDown();
+        Thread.sleep(50);
+        assertEquals(Arrays.asList(0), subscriber.received());
+    }
+
+    @Test
+    public void selfPostToFullBlockingMailboxIsDropped() throws Exception {
+        SelfPostingSubscriber subscriber = new SelfPostingSubscriber(eventBus);
+        eventBus.register(subscriber);
+        eventBus.post(new SelfPostEvent(0));
+        //事件0执行时向自己发布1、2：1放入信箱，信箱已满，2不能等待自己腾出空位，被丢弃
+        assertTrue(subscriber.done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        MailboxStats stats = eventBus.getMailboxStats().get(0);
+        assertEquals(1, stats.getDroppedCount());
+        assertEquals(0, stats.getBlockedCount());
+        assertEquals(Arrays.asList(0, 1), subscriber.received());
+    }
+
+    /**
+     * 注册并发布0，等订阅方法停在0上，再发布1、2填满信箱
+     */
+    private void fillMailbox(GatedSubscriber subscriber) throws InterruptedException {
+        eventBus.register(subscriber);
+        eventBus.post(new MailboxEvent(0));
+        assertTrue(subscriber.entered.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        eventBus.post(new MailboxEvent(1));
+        eventBus.post(new MailboxEvent(2));
+    }
+
+    private Future<?> postOnPublisher(final MailboxEvent event) {
+        return publisher.submit(new Callable<Void>() {
+            @Override
+            public Void call() {
+                eventBus.post(event);
+                return null;
+            }
+        });
+    }
+
+    private void awaitBlocked(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (eventBus.getMailboxStats().get(0).getBlockedCount() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, eventBus.getMailboxStats().get(0).getBlockedCount());
+    }
+
+    private void assertStats(Object subscriber, BackpressurePolicy backpressure, int depth, long dropped, long blocked) {
+        List<MailboxStats> statsList = eventBus.getMailboxStats();
+        assertEquals(1, statsList.size());
+        MailboxStats stats = statsList.get(0);
+        assertSame(subscriber, stats.getSubscriber());
+        assertEquals("onEvent", stats.getMethodName());
+        assertEquals(MailboxEvent.class, stats.getEventType());
+        assertEquals(2, stats.getCapacity());
+        assertEquals(backpressure, stats.getBackpressure());
+        assertEquals(depth, stats.getDepth());
+        assertEquals(dropped, stats.getDroppedCount());
+        assertEquals(blocked, stats.getBlockedCount());
+    }
+
+    public static final class MailboxEvent {
+
+        final int value;
+
+        MailboxEvent(int value) {
+            this.value = value;
+        }
+    }
+
+    public static final class SelfPostEvent {
+
+        final int value;
+
+        SelfPostEvent(int value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * 记录收到的事件，第一个事件执行时停住，直到release
+     */
+    abstract static class GatedSubscriber {
+
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        private final List<Integer> received = new ArrayList<>();
+
+        void receive(MailboxEvent event) throws InterruptedException {
+            synchronized (this) {
+                received.add(event.value);
+            }
+            if (event.value == 0) {
+                entered.countDown();
+                assertTrue(release.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            }
+        }
+
+        synchronized List<Integer> received() {
+            return new ArrayList<>(received);
+        }
+
+        void awaitReceived(Integer... expected) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+            while (received().size() < expected.length && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(Arrays.asList(expected), received());
+        }
+    }
+
+    public static final class BlockSubscriber extends GatedSubscriber {
+
+        @Subscribe(threadMode = ThreadMode.ASYNC, mailboxCapacity = 2, backpressure = BackpressurePolicy.BLOCK)
+        public void onEvent(MailboxEvent event) throws InterruptedException {
+            receive(event);
+        }
+    }
+
+    public static final class DropNewestSubscriber extends GatedSubscriber {
+
+        @Subscribe(threadMode = ThreadMode.ASYNC, mailboxCapacity = 2, backpressure = BackpressurePolicy.DROP_NEWEST)
+        public void onEvent(MailboxEvent event) throws InterruptedException {
+            receive(event);
+        }
+    }
+
+    public static final class DropOldestSubscriber extends GatedSubscriber {
+
+        @Subscribe(threadMode = ThreadMode.ASYNC, mailboxCapacity = 2, backpressure = BackpressurePolicy.DROP_OLDEST)
+        public void onEvent(MailboxEvent event) throws InterruptedException {
+            receive(event);
+        }
+    }
+
+    public static final class ConflateSubscriber extends GatedSubscriber {
+
+        @Subscribe(threadMode = ThreadMode.ASYNC, mailboxCapacity = 2, backpressure = BackpressurePolicy.CONFLATE)
+        public void onEvent(MailboxEvent event) throws InterruptedException {
+            receive(event);
+        }
+    }
+
+    public static final class SelfPostingSubscriber {
+
+        final CountDownLatch done = new CountDownLatch(1);
+        private final EventBus eventBus;
+        private final List<Integer> received = new ArrayList<>();
+
+        SelfPostingSubscriber(EventBus eventBus) {
+            this.eventBus = eventBus;
+        }
+
+        @Subscribe(threadMode = ThreadMode.ASYNC, mailboxCapacity = 1, backpressure = BackpressurePolicy.BLOCK)
+        public void onEvent(SelfPostEvent event) {
+            synchronized (this) {
+                received.add(event.value);
+            }
+            if (event.value == 0) {
+                eventBus.post(new SelfPostEvent(1));
+                eventBus.post(new SelfPostEvent(2));
+            } else {
+                done.countDown();
+            }
+        }
+
+        synchronized List<Integer> received() {
+            return new ArrayList<>(received);
+        }
+    }
+}
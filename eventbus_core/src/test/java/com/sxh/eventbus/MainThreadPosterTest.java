@@ -0,0 +1,116 @@
+package com.sxh.eventbus;
+
+import com.sxh.eventbus_annotation.Subscribe;
+import com.sxh.eventbus_annotation.ThreadMode;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 主线程投递器：时间预算用完后重新提交失败，之后的投递仍能重新提交，不会永远停在已提交状态
+ */
+public class MainThreadPosterTest {
+
+    private ExecutorService mainThread;
+    private FailingMainThreadSupport mainThreadSupport;
+    private EventBus eventBus;
+
+    @Before
+    public void setUp() {
+        mainThread = Executors.newSingleThreadExecutor();
+        mainThreadSupport = new FailingMainThreadSupport(mainThread);
+        eventBus = EventBus.builder()
+                .addIndex(new EventBusTestIndex())
+                .mainThreadSupport(mainThreadSupport)
+                .maxMillisInsideHandleMessage(1)
+                .build();
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        mainThread.shutdownNow();
+        assertTrue(mainThread.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void failedRescheduleDoesNotStrandLaterPosts() throws Exception {
+        SlowMainSubscriber subscriber = new SlowMainSubscriber();
+        eventBus.register(subscriber);
+        //第一次提交成功，执行完第一个投递后时间预算用完，重新提交失败
+        mainThreadSupport.failAfter.set(1);
+        for (int i = 0; i < 5; i++) {
+            eventBus.post(new MainEvent());
+        }
+        awaitCount(subscriber, 1);
+        Thread.sleep(50);
+        assertEquals(1, subscriber.count.get());
+
+        //新的投递重新提交，连同之前留在队列里的一起执行
+        eventBus.post(new MainEvent());
+        awaitCount(subscriber, 6);
+        assertEquals(1, mainThreadSupport.failures.get());
+    }
+
+    private static void awaitCount(SlowMainSubscriber subscriber, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (subscriber.count.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, subscriber.count.get());
+    }
+
+    /**
+     * 用单线程池模拟主线程，提交次数到达failAfter后失败一次
+     */
+    private static final class FailingMainThreadSupport implements MainThreadSupport {
+
+        private final ExecutorService mainThread;
+        final AtomicInteger failAfter = new AtomicInteger(-1);
+        final AtomicInteger failures = new AtomicInteger();
+        private final AtomicInteger executions = new AtomicInteger();
+        private final AtomicBoolean failed = new AtomicBoolean();
+
+        FailingMainThreadSupport(ExecutorService mainThread) {
+            this.mainThread = mainThread;
+        }
+
+        @Override
+        public boolean isMainThread() {
+            return false;
+        }
+
+        @Override
+        public void execute(Runnable runnable) {
+            if (executions.getAndIncrement() == failAfter.get() && failed.compareAndSet(false, true)) {
+                failures.incrementAndGet();
+                throw new IllegalStateException("主线程消息发送失败");
+            }
+            mainThread.execute(runnable);
+        }
+    }
+
+    public static final class MainEvent {
+    }
+
+    public static final class SlowMainSubscriber {
+
+        final AtomicInteger count = new AtomicInteger();
+
+        @Subscribe(threadMode = ThreadMode.MAIN)
+        public void onEvent(MainEvent event) throws InterruptedException {
+            //超过1毫秒的时间预算，每执行一个投递就重新提交
+            Thread.sleep(2);
+            count.incrementAndGet();
+        }
+    }
+}
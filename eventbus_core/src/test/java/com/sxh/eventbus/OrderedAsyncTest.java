@@ -0,0 +1,130 @@
+package com.sxh.eventbus;
+
+import com.sxh.eventbus_annotation.Subscribe;
+import com.sxh.eventbus_annotation.ThreadMode;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * ORDERED_ASYNC：同一订阅者的投递按发布顺序串行执行，不同条带上的订阅者并行执行
+ */
+public class OrderedAsyncTest {
+
+    private static final int SUBSCRIBERS = 16;
+    private static final int EVENTS = 1000;
+    private static final int SLOW_EVENTS = 20;
+
+    private static final AtomicInteger RUNNING = new AtomicInteger();
+    private static final AtomicInteger MAX_RUNNING = new AtomicInteger();
+
+    private ExecutorService executor;
+    private EventBus eventBus;
+
+    @Before
+    public void setUp() {
+        RUNNING.set(0);
+        MAX_RUNNING.set(0);
+        executor = Executors.newFixedThreadPool(8);
+        eventBus = EventBus.builder()
+                .addIndex(new EventBusTestIndex())
+                .executorService(executor)
+                .orderedAsyncStripes(4)
+                .build();
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void deliveriesAreFifoAndSerialPerSubscriber() throws Exception {
+        CountDownLatch done = new CountDownLatch(SUBSCRIBERS);
+        List<OrderedSubscriber> subscribers = new ArrayList<>();
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            OrderedSubscriber subscriber = new OrderedSubscriber(done);
+            subscribers.add(subscriber);
+            eventBus.register(subscriber);
+        }
+        //前一半逐个发布，后一半整批发布，两条入队路径都要保持顺序
+        for (int i = 0; i < EVENTS / 2; i++) {
+            eventBus.post(new OrderedEvent(i));
+        }
+        List<OrderedEvent> batch = new ArrayList<>();
+        for (int i = EVENTS / 2; i < EVENTS; i++) {
+            batch.add(new OrderedEvent(i));
+        }
+        eventBus.postAll(batch);
+
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        for (OrderedSubscriber subscriber : subscribers) {
+            assertEquals(0, subscriber.overlaps.get());
+            assertEquals(EVENTS, subscriber.received.size());
+            for (int i = 0; i < EVENTS; i++) {
+                assertEquals(i, (int) subscriber.received.get(i));
+            }
+        }
+        //不同条带之间并行
+        assertTrue("最多同时执行：" + MAX_RUNNING.get(), MAX_RUNNING.get() > 1);
+    }
+
+    public static final class OrderedEvent {
+
+        final int value;
+
+        OrderedEvent(int value) {
+            this.value = value;
+        }
+    }
+
+    public static final class OrderedSubscriber {
+
+        private final CountDownLatch done;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger overlaps = new AtomicInteger();
+        /**
+         * 只由正在执行的那一个投递写入，执行完后通过done的happens-before对测试线程可见
+         */
+        final List<Integer> received = new ArrayList<>();
+
+        OrderedSubscriber(CountDownLatch done) {
+            this.done = done;
+        }
+
+        @Subscribe(threadMode = ThreadMode.ORDERED_ASYNC)
+        public void onEvent(OrderedEvent event) throws InterruptedException {
+            if (inFlight.incrementAndGet() != 1) {
+                overlaps.incrementAndGet();
+            }
+            int running = RUNNING.incrementAndGet();
+            int max;
+            while (running > (max = MAX_RUNNING.get()) && !MAX_RUNNING.compareAndSet(max, running)) {
+                //重试
+            }
+            if (event.value < SLOW_EVENTS) {
+                //开头几个事件放慢，让不同条带的执行有机会重叠
+                Thread.sleep(1);
+            }
+            received.add(event.value);
+            RUNNING.decrementAndGet();
+            inFlight.decrementAndGet();
+            if (event.value == EVENTS - 1) {
+                done.countDown();
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.sxh.eventbus;
+
+import com.sxh.eventbus_annotation.Subscribe;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * POSTING线程模式的发布路径不分配对象：预热后在发布线程上连续发布，
+ * 用ThreadMXBean统计当前线程的分配字节数，开启、关闭事件继承都应为0
+ */
+public class PostAllocationTest {
+
+    /**
+     * 预热次数，足够让发布路径被JIT编译
+     */
+    private static final int WARMUP_POSTS = 200000;
+    private static final int MEASURED_POSTS = 100000;
+
+    @Test
+    public void postingAllocatesNothingWithoutEventInheritance() {
+        assertNoAllocation(false);
+    }
+
+    @Test
+    public void postingAllocatesNothingWithEventInheritance() {
+        assertNoAllocation(true);
+    }
+
+    private static void assertNoAllocation(boolean eventInheritance) {
+        com.sun.management.ThreadMXBean threadBean = threadBean();
+        EventBus eventBus = EventBus.builder()
+                .addIndex(new EventBusTestIndex())
+                .eventInheritance(eventInheritance)
+                .build();
+        CountingSubscriber subscriber = new CountingSubscriber();
+        eventBus.register(subscriber);
+        CountEvent event = new CountEvent();
+        for (int i = 0; i < WARMUP_POSTS; i++) {
+            eventBus.post(event);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_POSTS; i++) {
+            eventBus.post(event);
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals(WARMUP_POSTS + MEASURED_POSTS, subscriber.count);
+        assertEquals("发布" + MEASURED_POSTS + "次共分配的字节数", 0, allocated);
+    }
+
+    /**
+     * 不支持按线程统计分配字节数的JVM上跳过
+     */
+    private static com.sun.management.ThreadMXBean threadBean() {
+        java.lang.management.ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        Assume.assumeTrue(allocationBean.isThreadAllocatedMemorySupported());
+        allocationBean.setThreadAllocatedMemoryEnabled(true);
+        return allocationBean;
+    }
+
+    public static final class CountEvent {
+    }
+
+    public static final class CountingSubscriber {
+
+        long count;
+
+        @Subscribe
+        public void onCount(CountEvent event) {
+            count++;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.sxh.eventbus;
+
+import com.sxh.eventbus_annotation.Subscribe;
+import com.sxh.eventbus_annotation.ThreadMode;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 请求/应答式发布：结果按订阅顺序汇总，异常、超时只回调一次
+ */
+public class PostForResultTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private EventBus eventBus;
+
+    @Before
+    public void setUp() {
+        eventBus = EventBus.builder().addIndex(new EventBusTestIndex()).build();
+    }
+
+    @Test
+    public void resultsFollowSubscriptionOrderAcrossThreadModes() throws Exception {
+        eventBus.register(new MixedSubscriber());
+        RecordingCallback callback = new RecordingCallback();
+        eventBus.postForResult(new QueryEvent(), callback);
+
+        callback.await();
+        //ASYNC方法最慢，结果仍按优先级排在POSTING之后；void方法没有结果，返回null的方法有结果
+        assertEquals(Arrays.asList("posting", "async", null), callback.results);
+        assertNull(callback.error);
+    }
+
+    @Test
+    public void noSubscribersCallsBackWithEmptyList() {
+        RecordingCallback callback = new RecordingCallback();
+        eventBus.postForResult(new UnsubscribedEvent(), callback);
+        //没有订阅方法时在当前线程直接回调
+        assertEquals(1, callback.calls.get());
+        assertEquals(Collections.emptyList(), callback.results);
+    }
+
+    @Test
+    public void firstExceptionIsReported() throws Exception {
+        eventBus.register(new FailingSubscriber());
+        RecordingCallback callback = new RecordingCallback();
+        eventBus.postForResult(new FailingEvent(), callback);
+
+        callback.await();
+        assertTrue(callback.error instanceof IllegalStateException);
+        assertEquals("boom", callback.error.getMessage());
+        assertNull(callback.results);
+    }
+
+    @Test
+    public void timeoutReportsTimeoutExceptionOnce() throws Exception {
+        SlowSubscriber subscriber = new SlowSubscriber();
+        eventBus.register(subscriber);
+        RecordingCallback callback = new RecordingCallback();
+        eventBus.postForResult(new SlowEvent(), 50, TimeUnit.MILLISECONDS, callback);
+
+        callback.await();
+        assertTrue(callback.error instanceof TimeoutException);
+
+        //超时之后执行完的结果被忽略，不再回调
+        subscriber.release.countDown();
+        assertTrue(subscriber.finished.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        assertEquals(1, callback.calls.get());
+        assertNull(callback.results);
+    }
+
+    @Test
+    public void resultBeforeTimeoutCancelsTimeout() throws Exception {
+        SlowSubscriber subscriber = new SlowSubscriber();
+        subscriber.release.countDown();
+        eventBus.register(subscriber);
+        RecordingCallback callback = new RecordingCallback();
+        eventBus.postForResult(new SlowEvent(), 100, TimeUnit.MILLISECONDS, callback);
+
+        callback.await();
+        assertEquals(Arrays.asList("slow"), callback.results);
+        Thread.sleep(200);
+        assertEquals(1, callback.calls.get());
+        assertNull(callback.error);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeTimeoutIsRejected() {
+        eventBus.postForResult(new QueryEvent(), -1, TimeUnit.MILLISECONDS, new RecordingCallback());
+    }
+
+    static final class RecordingCallback implements ResultCallback {
+
+        final AtomicInteger calls = new AtomicInteger();
+        private final CountDownLatch done = new CountDownLatch(1);
+        volatile List<Object> results;
+        volatile Throwable error;
+
+        @Override
+        public void onResult(List<Object> results) {
+            this.results = results;
+            calls.incrementAndGet();
+            done.countDown();
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            error = e;
+            calls.incrementAndGet();
+            done.countDown();
+        }
+
+        void await() throws InterruptedException {
+            assertTrue(done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        }
+    }
+
+    public static final class QueryEvent {
+    }
+
+    public static final class UnsubscribedEvent {
+    }
+
+    public static final class FailingEvent {
+    }
+
+    public static final class SlowEvent {
+    }
+
+    public static final class MixedSubscriber {
+
+        @Subscribe(priority = 3)
+        public String onPosting(QueryEvent event) {
+            return "posting";
+        }
+
+        @Subscribe(threadMode = ThreadMode.ASYNC, priority = 2)
+        public String onAsync(QueryEvent event) throws InterruptedException {
+            Thread.sleep(50);
+            return "async";
+        }
+
+        @Subscribe(priority = 1)
+        public void onVoid(QueryEvent event) {
+        }
+
+        @Subscribe(threadMode = ThreadMode.BACKGROUND)
+        public String onBackground(QueryEvent event) {
+            return null;
+        }
+    }
+
+    public static final class FailingSubscriber {
+
+        @Subscribe
+        public String onFirst(FailingEvent event) {
+            throw new IllegalStateException("boom");
+        }
+
+        @Subscribe(threadMode = ThreadMode.ASYNC)
+        public String onSecond(FailingEvent event) {
+            return "ignored";
+        }
+    }
+
+    public static final class SlowSubscriber {
+
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch finished = new CountDownLatch(1);
+
+        @Subscribe(threadMode = ThreadMode.ASYNC)
+        public String onSlow(SlowEvent event) throws InterruptedException {
+            try {
+                assertTrue(release.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+                return "slow";
+            } finally {
+                finished.countDown();
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.sxh.eventbus;
+
+import com.sxh.eventbus_annotation.Subscribe;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 注册、解注册按订阅者对象本身区分：equals相等的两个订阅者互不影响
+ */
+public class RegisterTest {
+
+    private EventBus eventBus;
+
+    @Before
+    public void setUp() {
+        eventBus = EventBus.builder().addIndex(new EventBusTestIndex()).build();
+    }
+
+    @Test
+    public void equalSubscribersAreRegisteredSeparately() {
+        EqualSubscriber first = new EqualSubscriber();
+        EqualSubscriber second = new EqualSubscriber();
+        assertEquals(first, second);
+        eventBus.register(first);
+        eventBus.register(second);
+        assertTrue(eventBus.isRegistered(first));
+        assertTrue(eventBus.isRegistered(second));
+
+        eventBus.post(new RegisterEvent());
+        assertEquals(1, first.count);
+        assertEquals(1, second.count);
+
+        eventBus.unregister(first);
+        assertFalse(eventBus.isRegistered(first));
+        assertTrue(eventBus.isRegistered(second));
+        eventBus.post(new RegisterEvent());
+        assertEquals(1, first.count);
+        assertEquals(2, second.count);
+
+        eventBus.unregister(second);
+        assertFalse(eventBus.isRegistered(second));
+        eventBus.post(new RegisterEvent());
+        assertEquals(2, second.count);
+    }
+
+    public static final class RegisterEvent {
+    }
+
+    /**
+     * 所有实例都equals相等
+     */
+    public static final class EqualSubscriber {
+
+        int count;
+
+        @Subscribe
+        public void onEvent(RegisterEvent event) {
+            count++;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            return object instanceof EqualSubscriber;
+        }
+
+        @Override
+        public int hashCode() {
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.sxh.eventbus;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 共用时间轮和每个EventBus的Scheduler
+ */
+public class TimingWheelTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    @Test
+    public void rejectedExpiredTasksAreDroppedNotRunOnTicker() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+        RecordingLogger logger = new RecordingLogger();
+        TimingWheel.Scheduler scheduler = new TimingWheel.Scheduler(TimingWheel.shared(), executor, logger);
+        final AtomicInteger runs = new AtomicInteger();
+        TimingWheel.Task task = new TimingWheel.Task() {
+            @Override
+            public void run(Object argument) {
+                runs.incrementAndGet();
+            }
+        };
+        scheduler.schedule(task, null, TimeUnit.MILLISECONDS.toNanos(10));
+        scheduler.schedule(task, null, TimeUnit.MILLISECONDS.toNanos(10));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (logger.count() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        Thread.sleep(50);
+        //线程池已关闭，任务被丢弃，不在共用的定时线程上执行
+        assertEquals(0, runs.get());
+        assertTrue(logger.count() >= 1);
+
+        //其他Scheduler的定时任务不受影响
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        try {
+            TimingWheel.Scheduler otherScheduler = new TimingWheel.Scheduler(TimingWheel.shared(), other, logger);
+            otherScheduler.schedule(task, null, TimeUnit.MILLISECONDS.toNanos(10));
+            deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+            while (runs.get() < 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(1, runs.get());
+        } finally {
+            other.shutdownNow();
+        }
+    }
+
+    /**
+     * 记录SEVERE日志
+     */
+    static final class RecordingLogger implements Logger {
+
+        private final List<String> messages = new ArrayList<>();
+
+        @Override
+        public synchronized void log(Level level, String msg) {
+            if (level == Level.SEVERE) {
+                messages.add(msg);
+            }
+        }
+
+        @Override
+        public synchronized void log(Level level, String msg, Throwable th) {
+            log(level, msg);
+        }
+
+        synchronized int count() {
+            return messages.size();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.sxh.eventbus;
+
+import com.sxh.eventbus_annotation.Subscribe;
+import com.sxh.eventbus_annotation.ThreadMode;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 弱引用注册：订阅者被回收后，下一次发布时移除它的订阅句柄，关闭信箱、释放合并投递暂存的事件
+ */
+public class WeakRegisterTest {
+
+    private static final long TIMEOUT_MILLIS = 10000;
+    private static final AtomicInteger DELIVERIES = new AtomicInteger();
+
+    private ExecutorService executor;
+    private CountDownLatch release;
+    private EventBus eventBus;
+
+    @Before
+    public void setUp() throws InterruptedException {
+        DELIVERIES.set(0);
+        executor = Executors.newSingleThreadExecutor();
+        release = new CountDownLatch(1);
+        final CountDownLatch blocked = new CountDownLatch(1);
+        //先占住唯一的线程，BACKGROUND、ASYNC的投递都在后面排队
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        assertTrue(blocked.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        eventBus = EventBus.builder().addIndex(new EventBusTestIndex()).executorService(executor).build();
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void weakSubscriberIsRegisteredUntilUnregistered() {
+        WeakSubscriber subscriber = new WeakSubscriber();
+        eventBus.registerWeak(subscriber);
+        assertTrue(eventBus.isRegistered(subscriber));
+        eventBus.post(new PostingEvent());
+        assertEquals(1, DELIVERIES.get());
+
+        eventBus.unregister(subscriber);
+        assertFalse(eventBus.isRegistered(subscriber));
+        assertTrue(eventBus.getMailboxStats().isEmpty());
+        eventBus.post(new PostingEvent());
+        assertEquals(1, DELIVERIES.get());
+    }
+
+    @Test
+    public void collectedSubscriberIsPurgedAndReleasesPendingEvents() throws Exception {
+        WeakReference<?>[] refs = registerAndPost();
+        WeakReference<?> subscriberRef = refs[0];
+        assertEquals(1, eventBus.getMailboxStats().size());
+
+        awaitCollected(subscriberRef);
+        //发布时取出引用队列，移除被回收订阅者的订阅句柄
+        eventBus.post(new PostingEvent());
+        assertTrue(eventBus.getMailboxStats().isEmpty());
+        //合并投递的槽位、信箱里暂存的事件不再被持有
+        awaitCollected(refs[1]);
+        awaitCollected(refs[2]);
+
+        //排队中的投递执行时发现句柄已失效，不再执行
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        assertEquals(0, DELIVERIES.get());
+    }
+
+    /**
+     * 在单独的方法里创建订阅者和事件，返回后只剩弱引用
+     */
+    private WeakReference<?>[] registerAndPost() {
+        WeakSubscriber subscriber = new WeakSubscriber();
+        eventBus.registerWeak(subscriber);
+        ConflatedEvent conflatedEvent = new ConflatedEvent();
+        MailboxEvent mailboxEvent = new MailboxEvent();
+        eventBus.post(conflatedEvent);
+        eventBus.post(mailboxEvent);
+        return new WeakReference<?>[]{
+                new WeakReference<>(subscriber),
+                new WeakReference<>(conflatedEvent),
+                new WeakReference<>(mailboxEvent)};
+    }
+
+    private static void awaitCollected(WeakReference<?> reference) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (reference.get() != null && System.currentTimeMillis() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(reference.get());
+    }
+
+    public static final class PostingEvent {
+    }
+
+    public static final class ConflatedEvent {
+    }
+
+    public static final class MailboxEvent {
+    }
+
+    public static final class WeakSubscriber {
+
+        @Subscribe
+        public void onPosting(PostingEvent event) {
+            DELIVERIES.incrementAndGet();
+        }
+
+        @Subscribe(threadMode = ThreadMode.BACKGROUND, conflate = true)
+        public void onConflated(ConflatedEvent event) {
+            DELIVERIES.incrementAndGet();
+        }
+
+        @Subscribe(threadMode = ThreadMode.ASYNC, mailboxCapacity = 4)
+        public void onMailbox(MailboxEvent event) {
+            DELIVERIES.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.sxh.eventbus;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 基于单线程事件循环的主线程支持，JVM（如服务端）环境使用：
+ * 事件循环线程即“主线程”，MAIN线程模式的订阅方法都在它上面依次执行，业务代码也可以通过execute()把任务放到这个线程
+ * <p>
+ * EventBus eventBus = EventBus.builder().mainThreadSupport(new EventLoopMainThreadSupport()).build();
+ */
+public final class EventLoopMainThreadSupport implements MainThreadSupport, Executor {
+
+    private static final String DEFAULT_THREAD_NAME = "eventbus-main";
+
+    private final ExecutorService loop;
+    /**
+     * 事件循环线程，线程因异常退出后由线程池重新创建
+     */
+    private volatile Thread loopThread;
+
+    public EventLoopMainThreadSupport() {
+        this(DEFAULT_THREAD_NAME);
+    }
+
+    public EventLoopMainThreadSupport(final String threadName) {
+        loop = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, threadName);
+                thread.setDaemon(true);
+                loopThread = thread;
+                return thread;
+            }
+        });
+    }
+
+    @Override
+    public boolean isMainThread() {
+        return Thread.currentThread() == loopThread;
+    }
+
+    /**
+     * 在事件循环线程上执行任务
+     */
+    @Override
+    public void execute(Runnable command) {
+        loop.execute(command);
+    }
+
+    /**
+     * 停止事件循环，已排队的任务执行完后线程退出，之后MAIN线程模式的投递会被拒绝
+     */
+    public void shutdown() {
+        loop.shutdown();
+    }
+}
@@ -0,0 +1,53 @@
+package com.sxh.eventbus;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * JVM上BACKGROUND、ASYNC线程模式可选的线程池
+ * <p>
+ * 模块按Java 8编译，虚拟线程相关的API通过反射调用，运行在Java 21及以上时才可用
+ */
+public final class JvmExecutors {
+
+    private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findNewVirtualThreadPerTaskExecutor();
+
+    private JvmExecutors() {
+    }
+
+    /**
+     * 当前JVM是否支持虚拟线程
+     */
+    public static boolean isVirtualThreadSupported() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * 每次投递使用一个新的虚拟线程，适合大量阻塞I/O的ASYNC订阅方法，需要Java 21及以上
+     * 只用于ASYNC，BACKGROUND投递器在队列为空时会在锁内等待，放到虚拟线程上会占住载体线程
+     * <p>
+     * EventBus.builder()
+     *         .asyncExecutorService(JvmExecutors.newVirtualThreadPerTaskExecutor())
+     *         .maxAsyncConcurrency(1000)
+     *         .build();
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        if (NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR == null) {
+            throw new UnsupportedOperationException("虚拟线程需要Java 21及以上");
+        }
+        try {
+            return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+        } catch (Exception e) {
+            throw new IllegalStateException("创建虚拟线程池失败", e);
+        }
+    }
+
+    private static Method findNewVirtualThreadPerTaskExecutor() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.sxh.eventbus;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 把postForResult的回调转换成CompletableFuture，方便在JVM上继续组合（thenApply、allOf等）
+ * <p>
+ * 核心模块需要兼容Android API 21，不能直接使用CompletableFuture，所以放在这里
+ * <p>
+ * JvmFutures.postForResult(eventBus, new QueryEvent(id), 1, TimeUnit.SECONDS)
+ *         .thenAccept(results -> ...);
+ */
+public final class JvmFutures {
+
+    private JvmFutures() {
+    }
+
+    /**
+     * 见{@link EventBus#postForResult(Object, ResultCallback)}，有订阅方法抛出异常时Future以第一个异常结束
+     */
+    public static CompletableFuture<List<Object>> postForResult(EventBus eventBus, Object event) {
+        CompletableFuture<List<Object>> future = new CompletableFuture<>();
+        eventBus.postForResult(event, new FutureCallback(future));
+        return future;
+    }
+
+    /**
+     * 见{@link EventBus#postForResult(Object, long, TimeUnit, ResultCallback)}，超时后Future以TimeoutException结束
+     */
+    public static CompletableFuture<List<Object>> postForResult(EventBus eventBus, Object event, long timeout, TimeUnit unit) {
+        CompletableFuture<List<Object>> future = new CompletableFuture<>();
+        eventBus.postForResult(event, timeout, unit, new FutureCallback(future));
+        return future;
+    }
+
+    private static final class FutureCallback implements ResultCallback {
+
+        private final CompletableFuture<List<Object>> future;
+
+        FutureCallback(CompletableFuture<List<Object>> future) {
+            this.future = future;
+        }
+
+        @Override
+        public void onResult(List<Object> results) {
+            future.complete(results);
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            future.completeExceptionally(e);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.sxh.eventbus;
+
+import com.sxh.eventbus_annotation.Subscribe;
+import com.sxh.eventbus_annotation.ThreadMode;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * postForResult的回调转换成CompletableFuture
+ */
+public class JvmFuturesTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private EventBus eventBus;
+
+    @Before
+    public void setUp() {
+        eventBus = EventBus.builder().addIndex(new JvmTestIndex()).build();
+    }
+
+    @Test
+    public void futureCompletesWithResults() throws Exception {
+        eventBus.register(new AnswerSubscriber());
+        CompletableFuture<List<Object>> future = JvmFutures.postForResult(eventBus, new AnswerEvent());
+        assertEquals(Arrays.<Object>asList(42, "async"), future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void futureFailsWithSubscriberException() throws Exception {
+        eventBus.register(new FailingSubscriber());
+        CompletableFuture<List<Object>> future = JvmFutures.postForResult(eventBus, new FailingEvent());
+        try {
+            future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void futureTimesOut() throws Exception {
+        SlowSubscriber subscriber = new SlowSubscriber();
+        eventBus.register(subscriber);
+        CompletableFuture<List<Object>> future = JvmFutures.postForResult(eventBus, new SlowEvent(), 50, TimeUnit.MILLISECONDS);
+        try {
+            future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        } finally {
+            subscriber.release.countDown();
+        }
+    }
+
+    public static final class AnswerEvent {
+    }
+
+    public static final class FailingEvent {
+    }
+
+    public static final class SlowEvent {
+    }
+
+    public static final class AnswerSubscriber {
+
+        @Subscribe(priority = 1)
+        public int onAnswer(AnswerEvent event) {
+            return 42;
+        }
+
+        @Subscribe(threadMode = ThreadMode.ASYNC)
+        public String onAsyncAnswer(AnswerEvent event) {
+            return "async";
+        }
+    }
+
+    public static final class FailingSubscriber {
+
+        @Subscribe
+        public String onFailing(FailingEvent event) {
+            throw new IllegalStateException("boom");
+        }
+    }
+
+    public static final class SlowSubscriber {
+
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Subscribe(threadMode = ThreadMode.ASYNC)
+        public String onSlow(SlowEvent event) throws InterruptedException {
+            release.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            return "slow";
+        }
+    }
+}